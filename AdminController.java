@@ -0,0 +1,50 @@
+// src/main/java/com/demo/controller/AdminController.java
+package com.demo.controller;
+
+import com.demo.dto.ImportReport;
+import com.demo.service.BulkImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 管理接口，需要 ROLE_ADMIN（app.admin-usernames）
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * 批量导入 NDJSON，请求体按流读取，支持 Content-Encoding: gzip
+     * curl -u admin:密码 -H 'Content-Type: application/x-ndjson' --data-binary @dump.ndjson http://localhost:8080/admin/import
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importData(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+
+        try {
+            ImportReport report = bulkImportService.importNdjson(body);
+            return ResponseEntity.status(report.isCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(report);
+        } catch (IllegalStateException e) {
+            log.warn("拒绝导入请求: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
\ No newline at end of file
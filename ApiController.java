@@ -0,0 +1,123 @@
+// src/main/java/com/demo/controller/ApiController.java
+package com.demo.controller;
+
+import com.demo.dto.ChangeFeed;
+import com.demo.dto.CursorPage;
+import com.demo.dto.ReplyView;
+import com.demo.dto.SearchHit;
+import com.demo.service.QuestionChangeService;
+import com.demo.service.QuestionExportService;
+import com.demo.service.QuestionListVersion;
+import com.demo.service.ReadExecutor;
+import com.demo.service.ReplyService;
+import com.demo.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ApiController {
+
+    private static final int MAX_SEARCH_LIMIT = 50;
+
+    private final SearchIndexService searchIndexService;
+    private final ReplyService replyService;
+    private final ReadExecutor readExecutor;
+    private final QuestionExportService questionExportService;
+    private final QuestionListVersion questionListVersion;
+    private final QuestionChangeService questionChangeService;
+
+    // 内存索引，不访问数据库，保持同步
+    @GetMapping("/search")
+    public List<SearchHit> search(@RequestParam("q") String query,
+                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return searchIndexService.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT));
+    }
+
+    /**
+     * 全部问题的 JSON 数组，逐行流式写出；fields 选择输出字段，客户端接受 gzip 时压缩
+     * 导出可能持续很久，在请求线程上同步写出，不走 ReadExecutor 和异步超时，并发由导出名额限制
+     */
+    @GetMapping("/questions")
+    public void questions(@RequestParam(value = "fields", required = false) String fields,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Set<QuestionExportService.Field> selected = questionExportService.parseFields(fields);
+
+        // 列表版本不变时内容不变，ETag 区分字段选择；导出读读库时版本号可能超前于数据，不签发 ETag
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (questionListVersion.coversCurrentReads()) {
+            int fieldMask = selected.stream().mapToInt(f -> 1 << f.ordinal()).sum();
+            String etag = "W/\"" + questionListVersion.current() + "-" + Integer.toHexString(fieldMask) + "\"";
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+        }
+
+        questionExportService.acquire();
+        try {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), 8192);
+                questionExportService.writeTo(gzip, selected);
+                gzip.finish();
+            } else {
+                OutputStream out = response.getOutputStream();
+                questionExportService.writeTo(out, selected);
+            }
+            response.flushBuffer();
+        } finally {
+            questionExportService.release();
+        }
+    }
+
+    /**
+     * 增量同步：返回序号 since 之后变化过的问题（当前摘要或墓碑），since 为空时只返回当前游标
+     */
+    @GetMapping("/questions/changes")
+    public CompletableFuture<ChangeFeed> changes(@RequestParam(value = "since", required = false) Long since,
+                                                 @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        return readExecutor.submit(() -> questionChangeService.getChanges(since, limit));
+    }
+
+    @GetMapping("/questions/{id}/replies")
+    public CompletableFuture<CursorPage<ReplyView>> replies(@PathVariable Long id,
+                                                            @RequestParam(value = "cursor", required = false) String cursor) {
+        return readExecutor.submit(() -> replyService.getReplyPage(id, cursor));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
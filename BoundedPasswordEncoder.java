@@ -0,0 +1,201 @@
+// src/main/java/com/demo/security/BoundedPasswordEncoder.java
+package com.demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 在独立的有界线程池中执行 BCrypt 哈希和校验
+ * 线程池和队列都满时立即拒绝（PasswordHashingBusyException），避免 CPU 密集的认证占满 Tomcat 线程
+ * 等待超时后的取消只是尽力而为：BCrypt 计算不响应中断，已开始的哈希会一直算完，
+ * 所以准入按“已提交且尚未结束”的任务数（含调用方已放弃的）计算，而不是只看线程池队列
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int maxInFlight; // 线程数 + 队列容量
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong abandoned = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong(); // 不含排队时间
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity, long timeoutMillis) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        this.maxInFlight = poolSize + Math.max(1, queueCapacity);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 存储的哈希成本与当前配置不同时返回 true，登录成功后由 UserService.updatePassword 重新哈希
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * 在当前线程直接计算一次哈希，返回耗时（毫秒），用于启动时评估成本因子
+     */
+    public long benchmark(int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            delegate.encode("benchmark-password");
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / Math.max(1, rounds);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * 已提交但尚未结束的哈希数，包括调用方等待超时后仍在计算的
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * 调用方已放弃、但已经开始计算而无法取消的哈希次数
+     */
+    public long getAbandonedCount() {
+        return abandoned.get();
+    }
+
+    public long getHashCount() {
+        return hashCount.get();
+    }
+
+    public long getHashNanos() {
+        return hashNanos.get();
+    }
+
+    private <T> T call(Callable<T> task) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            throw reject();
+        }
+
+        // 工作线程开始执行和调用方放弃两者只有一个能成功，成功的一方负责释放名额
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null; // 调用方已放弃，不再计算
+                }
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    hashNanos.addAndGet(System.nanoTime() - start);
+                    hashCount.incrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw reject();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(future, claimed);
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("服务繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            abandon(future, claimed);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("请求已中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("密码哈希失败", cause);
+        }
+    }
+
+    /**
+     * 还在排队的任务直接移出队列并释放名额；已经开始的哈希无法中断，算完后由工作线程释放
+     */
+    private void abandon(Future<?> future, AtomicBoolean claimed) {
+        if (claimed.compareAndSet(false, true)) {
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            inFlight.decrementAndGet();
+        } else {
+            abandoned.incrementAndGet();
+        }
+    }
+
+    private PasswordHashingBusyException reject() {
+        rejected.incrementAndGet();
+        log.warn("密码哈希线程池已满，拒绝请求 (进行中={}, 活跃={}, 排队={})", inFlight.get(), getActiveCount(), getQueueSize());
+        return new PasswordHashingBusyException("服务繁忙，请稍后重试");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+// src/main/java/com/demo/service/BulkImportRunner.java
+package com.demo.service;
+
+import com.demo.dto.ImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 命令行导入：java -jar app.jar --import.file=dump.ndjson[.gz] [--import.exit=true]
+ */
+@Component
+@ConditionalOnProperty(name = "import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final BulkImportService bulkImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${import.file}")
+    private String file;
+
+    @Value("${import.exit:true}")
+    private boolean exitAfterImport;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Paths.get(file);
+        log.info("开始导入: {} ({} 字节)", path, Files.size(path));
+
+        ImportReport report;
+        try (InputStream raw = Files.newInputStream(path);
+             InputStream in = file.endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16) : raw) {
+            report = bulkImportService.importNdjson(in);
+        }
+
+        report.getErrors().forEach(error -> log.warn("导入跳过 {}", error));
+        if (!report.isCompleted()) {
+            log.error("导入未完成: {}", report.getFailure());
+        }
+
+        if (exitAfterImport) {
+            int code = SpringApplication.exit(context, () -> report.isCompleted() ? 0 : 1);
+            System.exit(code);
+        }
+    }
+}
\ No newline at end of file
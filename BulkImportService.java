@@ -0,0 +1,367 @@
+// src/main/java/com/demo/service/BulkImportService.java
+package com.demo.service;
+
+import com.demo.config.ReplicaRoutingContext;
+import com.demo.dto.ImportRecord;
+import com.demo.dto.ImportReport;
+import com.demo.model.Question;
+import com.demo.model.Reply;
+import com.demo.model.User;
+import com.demo.repository.QuestionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 从旧论坛迁移数据：按 NDJSON 流批量导入用户、问题和回复
+ * 每 import.chunk-size 行一个事务，提交前 flush/clear，内存中只保留外部引用到ID的映射
+ * 不发布 QuestionEvent，导入结束后统一校正统计、重建搜索索引、清空详情页缓存
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+    private static final int MAX_TITLE_LENGTH = 200;
+    private static final int MAX_USERNAME_LENGTH = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectReader recordReader;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionRepository questionRepository;
+    private final QuestionStatsReconciler statsReconciler;
+    private final SearchIndexService searchIndexService;
+    private final MarkdownRerenderJob markdownRerenderJob;
+    private final QuestionPageCache questionPageCache;
+    private final QuestionListVersion questionListVersion;
+    private final QuestionChangeService questionChangeService;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BulkImportService(ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             QuestionRepository questionRepository,
+                             QuestionStatsReconciler statsReconciler,
+                             SearchIndexService searchIndexService,
+                             MarkdownRerenderJob markdownRerenderJob,
+                             QuestionPageCache questionPageCache,
+                             QuestionListVersion questionListVersion,
+                             QuestionChangeService questionChangeService,
+                             @Value("${import.chunk-size:1000}") int chunkSize) {
+        this.recordReader = objectMapper.readerFor(ImportRecord.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.questionRepository = questionRepository;
+        this.statsReconciler = statsReconciler;
+        this.searchIndexService = searchIndexService;
+        this.markdownRerenderJob = markdownRerenderJob;
+        this.questionPageCache = questionPageCache;
+        this.questionListVersion = questionListVersion;
+        this.questionChangeService = questionChangeService;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public ImportReport importNdjson(InputStream input) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有导入任务在运行");
+        }
+        try {
+            return doImport(input);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ImportReport doImport(InputStream input) throws IOException {
+        ImportReport report = new ImportReport();
+        ImportState state = new ImportState();
+        long start = System.currentTimeMillis();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<NumberedRecord> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                report.setLines(report.getLines() + 1);
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    chunk.add(new NumberedRecord(report.getLines(), recordReader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    report.skip(report.getLines(), "JSON 格式错误");
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    persistChunk(chunk, state, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                persistChunk(chunk, state, report);
+            }
+            report.setCompleted(true);
+        } catch (RuntimeException e) {
+            // 当前批次已回滚，之前的批次保留
+            log.error("批量导入在第 {} 行附近失败", report.getLines(), e);
+            report.setFailure("第 " + report.getLines() + " 行附近提交失败: " + e.getMessage());
+        } finally {
+            report.setElapsedMillis(System.currentTimeMillis() - start);
+            if (report.getImportedRows() > 0) {
+                afterImport(state);
+            }
+        }
+
+        log.info("批量导入结束: 用户 {}, 问题 {}, 回复 {}, 跳过 {}, 耗时 {}ms, {} 行/秒",
+                report.getUsers(), report.getQuestions(), report.getReplies(), report.getSkipped(),
+                report.getElapsedMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    private void persistChunk(List<NumberedRecord> chunk, ImportState state, ImportReport report) {
+        ChunkCounts counts = transactionTemplate.execute(status -> {
+            ChunkCounts c = new ChunkCounts();
+            preloadExistingUsers(chunk, state);
+            for (NumberedRecord numbered : chunk) {
+                ImportRecord record = numbered.record;
+                String error;
+                switch (record.getType() != null ? record.getType() : "") {
+                    case "user":
+                        error = importUser(record, state, c);
+                        break;
+                    case "question":
+                        error = importQuestion(record, state, c);
+                        break;
+                    case "reply":
+                        error = importReply(record, state, c);
+                        break;
+                    default:
+                        error = "未知的记录类型: " + record.getType();
+                }
+                if (error != null) {
+                    report.skip(numbered.lineNumber, error);
+                }
+            }
+            // 提交前 flush，随后清空持久化上下文，保证每个批次占用的内存有上限
+            entityManager.flush();
+            entityManager.clear();
+            return c;
+        });
+
+        // 只统计已提交的批次
+        report.setUsers(report.getUsers() + counts.users);
+        report.setQuestions(report.getQuestions() + counts.questions);
+        report.setReplies(report.getReplies() + counts.replies);
+    }
+
+    /**
+     * 一次查询批次内已存在的用户名，已存在的用户不重复导入，直接映射到现有ID
+     */
+    private void preloadExistingUsers(List<NumberedRecord> chunk, ImportState state) {
+        List<String> usernames = new ArrayList<>();
+        for (NumberedRecord numbered : chunk) {
+            ImportRecord record = numbered.record;
+            if ("user".equals(record.getType()) && record.getUsername() != null
+                    && !state.userIds.containsKey(record.getUsername())) {
+                usernames.add(record.getUsername());
+            }
+        }
+        if (usernames.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT u.username, u.id FROM User u WHERE u.username IN :usernames", Object[].class)
+                .setParameter("usernames", usernames)
+                .getResultList();
+        for (Object[] row : rows) {
+            state.userIds.put((String) row[0], (Long) row[1]);
+        }
+    }
+
+    private String importUser(ImportRecord record, ImportState state, ChunkCounts counts) {
+        String username = record.getUsername();
+        if (username == null || username.trim().isEmpty() || username.length() > MAX_USERNAME_LENGTH) {
+            return "用户名为空或过长";
+        }
+        Long existing = state.userIds.get(username);
+        if (existing != null) {
+            if (record.getRef() != null) {
+                state.userRefs.put(record.getRef(), existing);
+            }
+            return "用户已存在，已映射到现有用户: " + username;
+        }
+        if (record.getPassword() == null || !record.getPassword().startsWith("$2")) {
+            return "密码必须是 BCrypt 哈希";
+        }
+
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(record.getPassword());
+        user.setEmail(record.getEmail());
+        user.setCreatedAt(record.getCreatedAt());
+        entityManager.persist(user); // 序列分配ID，persist 后立即可用
+
+        state.userIds.put(username, user.getId());
+        if (record.getRef() != null) {
+            state.userRefs.put(record.getRef(), user.getId());
+        }
+        counts.users++;
+        return null;
+    }
+
+    private String importQuestion(ImportRecord record, ImportState state, ChunkCounts counts) {
+        if (isBlank(record.getTitle()) || record.getTitle().length() > MAX_TITLE_LENGTH || isBlank(record.getContent())) {
+            return "标题或内容为空，或标题过长";
+        }
+        Long userId = resolveUser(record.getAuthor(), state);
+        if (userId == null) {
+            return "作者不存在: " + record.getAuthor();
+        }
+
+        Question question = new Question();
+        question.setTitle(record.getTitle());
+        question.setContent(record.getContent());
+        question.setCreatedAt(record.getCreatedAt());
+        question.setUser(entityManager.getReference(User.class, userId));
+        entityManager.persist(question);
+
+        if (record.getRef() != null) {
+            state.questionRefs.put(record.getRef(), question.getId());
+        }
+        counts.questions++;
+        return null;
+    }
+
+    private String importReply(ImportRecord record, ImportState state, ChunkCounts counts) {
+        if (isBlank(record.getContent())) {
+            return "回复内容为空";
+        }
+        Long questionId = resolveQuestion(record.getQuestion(), state);
+        if (questionId == null) {
+            return "问题不存在: " + record.getQuestion();
+        }
+        Long userId = resolveUser(record.getAuthor(), state);
+        if (userId == null) {
+            return "作者不存在: " + record.getAuthor();
+        }
+
+        Reply reply = new Reply();
+        reply.setContent(record.getContent());
+        reply.setCreatedAt(record.getCreatedAt());
+        reply.setUser(entityManager.getReference(User.class, userId));
+        reply.setQuestion(entityManager.getReference(Question.class, questionId));
+        entityManager.persist(reply);
+
+        if (state.firstReplyId == null) {
+            state.firstReplyId = reply.getId(); // 序列单调递增，之后导入的回复ID都不小于它
+        }
+        counts.replies++;
+        return null;
+    }
+
+    private Long resolveUser(String author, ImportState state) {
+        if (author == null) {
+            return null;
+        }
+        Long id = state.userRefs.get(author);
+        if (id == null) {
+            id = state.userIds.get(author);
+        }
+        if (id == null && !state.missingUsers.contains(author)) {
+            List<Long> found = entityManager.createQuery(
+                            "SELECT u.id FROM User u WHERE u.username = :username", Long.class)
+                    .setParameter("username", author)
+                    .getResultList();
+            if (found.isEmpty()) {
+                state.missingUsers.add(author);
+            } else {
+                id = found.get(0);
+                state.userIds.put(author, id);
+            }
+        }
+        return id;
+    }
+
+    private Long resolveQuestion(String ref, ImportState state) {
+        if (ref == null) {
+            return null;
+        }
+        Long id = state.questionRefs.get(ref);
+        if (id == null && ref.chars().allMatch(Character::isDigit)) {
+            Long existingId = Long.valueOf(ref);
+            if (questionRepository.existsById(existingId)) {
+                id = existingId;
+                state.questionRefs.put(ref, id);
+            }
+        }
+        return id;
+    }
+
+    private void afterImport(ImportState state) {
+        // 重建索引、补齐渲染都要读到刚导入的数据，不能走可能还没同步的读库
+        ReplicaRoutingContext.runOnPrimary(() -> rebuildDerivedState(state));
+        questionPageCache.invalidateAll();
+        questionListVersion.bump();
+        questionChangeService.recordReset(); // 导入的数据不逐条记录变更，增量同步的客户端整体重新加载
+    }
+
+    private void rebuildDerivedState(ImportState state) {
+        statsReconciler.reconcile();
+        if (state.firstReplyId != null) {
+            transactionTemplate.executeWithoutResult(status ->
+                    questionRepository.refreshLastActivitySince(state.firstReplyId));
+        }
+        searchIndexService.rebuild();
+        markdownRerenderJob.rerender(); // 导入时不渲染 Markdown，统一在这里补齐
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static class NumberedRecord {
+        private final long lineNumber;
+        private final ImportRecord record;
+
+        NumberedRecord(long lineNumber, ImportRecord record) {
+            this.lineNumber = lineNumber;
+            this.record = record;
+        }
+    }
+
+    private static class ChunkCounts {
+        private long users;
+        private long questions;
+        private long replies;
+    }
+
+    /**
+     * 跨批次的引用映射（某个批次失败时整个导入终止，不需要回滚这些映射）
+     */
+    private static class ImportState {
+        private final Map<String, Long> userRefs = new HashMap<>();
+        private final Map<String, Long> questionRefs = new HashMap<>();
+        private final Map<String, Long> userIds = new HashMap<>(); // 用户名 -> ID
+        private final Set<String> missingUsers = new HashSet<>();
+        private Long firstReplyId;
+    }
+}
\ No newline at end of file
@@ -17,8 +17,9 @@ public class Captcha {
     @Column(name = "captcha_code", length = 10, nullable = false)
     private String captchaCode; // 验证码内容
 
-    @Column(name = "base64_image", columnDefinition = "TEXT")
-    private String base64Image; // 验证码图片（Base64格式）
+    @Lob
+    @Column(name = "image_png")
+    private byte[] imagePng; // 验证码图片（PNG 原始字节）
 
     @Column(name = "expire_time", nullable = false)
     private LocalDateTime expireTime; // 过期时间
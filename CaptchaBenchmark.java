@@ -0,0 +1,111 @@
+// src/jmh/java/com/demo/util/CaptchaBenchmark.java
+package com.demo.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CaptchaUtil 各步骤的基准：吞吐量 + 分配速率（GCProfiler）
+ * CaptchaUtil 的 Random 是所有线程共享的静态实例，所以需要用多个线程数分别运行，见 main
+ * CaptchaService（含存储）的基准见 com.demo.service.CaptchaServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaptchaBenchmark {
+
+    private CaptchaUtil captchaUtil;
+    private BufferedImage renderedImage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        captchaUtil = new CaptchaUtil();
+        renderedImage = captchaUtil.createCaptchaImage("AbC7");
+    }
+
+    /** 完整流程：随机码 + 绘图 + PNG 编码 */
+    @Benchmark
+    public CaptchaUtil.CaptchaData generateCaptcha() {
+        return captchaUtil.generateCaptcha();
+    }
+
+    @Benchmark
+    public String generateRandomCode() {
+        return captchaUtil.generateRandomCode();
+    }
+
+    /** 绘图（背景、干扰线、字符、边框），不含编码 */
+    @Benchmark
+    public BufferedImage createCaptchaImage() {
+        return captchaUtil.createCaptchaImage("AbC7");
+    }
+
+    @Benchmark
+    public BufferedImage drawInterferenceLines() {
+        BufferedImage image = new BufferedImage(120, 45, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            captchaUtil.drawInterferenceLines(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage drawCode() {
+        BufferedImage image = new BufferedImage(120, 45, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            captchaUtil.drawCode(g, "AbC7");
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /** PNG 编码（原先的 convertToBase64 已被直接输出 PNG 字节取代） */
+    @Benchmark
+    public byte[] encodePng() {
+        return captchaUtil.encodePng(renderedImage);
+    }
+
+    /**
+     * 依次以 1/4/8 个线程运行本类和 CaptchaServiceBenchmark，开启 -prof gc，
+     * 结果写入 build/jmh/captcha-t{线程数}.json，作为后续验证码优化的对照基线
+     */
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[]{1, 4, 8}) {
+            Options options = new OptionsBuilder()
+                    .include(CaptchaBenchmark.class.getSimpleName())
+                    .include("com.demo.service.CaptchaServiceBenchmark")
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("build/jmh/captcha-t" + threads + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+// src/main/java/com/demo/service/CaptchaPool.java
+package com.demo.service;
+
+import com.demo.util.CaptchaUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 预生成验证码池：后台线程提前渲染验证码图片，请求线程只需 O(1) 取出
+ * 池中数量降到低水位时唤醒生产线程补满，池为空时才在请求线程上同步渲染
+ */
+@Component
+@Slf4j
+public class CaptchaPool {
+
+    private final CaptchaUtil captchaUtil;
+    private final int capacity;
+    private final int lowWatermark;
+    private final int producerCount;
+
+    private final BlockingQueue<CaptchaUtil.CaptchaData> pool;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final Condition refillNeeded = refillLock.newCondition();
+
+    private final AtomicLong hits = new AtomicLong();     // 从池中取到
+    private final AtomicLong misses = new AtomicLong();   // 池为空，同步渲染
+    private final AtomicLong produced = new AtomicLong(); // 后台生成数量
+
+    private ExecutorService producers;
+    private volatile boolean running;
+
+    public CaptchaPool(CaptchaUtil captchaUtil,
+                       @Value("${captcha.pool.size:64}") int capacity,
+                       @Value("${captcha.pool.low-watermark:16}") int lowWatermark,
+                       @Value("${captcha.pool.producers:1}") int producerCount) {
+        this.captchaUtil = captchaUtil;
+        this.capacity = Math.max(0, capacity);
+        this.lowWatermark = Math.min(Math.max(0, lowWatermark), Math.max(0, this.capacity - 1));
+        this.producerCount = Math.max(0, producerCount);
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, this.capacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (capacity == 0 || producerCount == 0) {
+            log.info("验证码池已禁用，所有验证码将同步生成");
+            return;
+        }
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        producers = Executors.newFixedThreadPool(producerCount, r -> {
+            Thread t = new Thread(r, "captcha-producer-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        for (int i = 0; i < producerCount; i++) {
+            producers.submit(this::produceLoop);
+        }
+        log.info("验证码池启动: 容量={}, 低水位={}, 生产线程={}", capacity, lowWatermark, producerCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (producers == null) {
+            return;
+        }
+        signalRefill();
+        producers.shutdownNow();
+        try {
+            producers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 取出一个验证码，池为空时退化为同步渲染
+     */
+    public CaptchaUtil.CaptchaData take() {
+        CaptchaUtil.CaptchaData data = pool.poll();
+        if (data == null) {
+            misses.incrementAndGet();
+            signalRefill();
+            return captchaUtil.generateCaptcha();
+        }
+        hits.incrementAndGet();
+        if (pool.size() <= lowWatermark) {
+            signalRefill();
+        }
+        return data;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getProduced() {
+        return produced.get();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", size());
+        metrics.put("capacity", capacity);
+        metrics.put("lowWatermark", lowWatermark);
+        metrics.put("hits", getHits());
+        metrics.put("misses", getMisses());
+        metrics.put("produced", getProduced());
+        return metrics;
+    }
+
+    private void produceLoop() {
+        while (running) {
+            try {
+                // 补满
+                while (running && pool.remainingCapacity() > 0) {
+                    if (!pool.offer(captchaUtil.generateCaptcha())) {
+                        break;
+                    }
+                    produced.incrementAndGet();
+                }
+
+                // 等待降到低水位
+                refillLock.lock();
+                try {
+                    while (running && pool.size() > lowWatermark) {
+                        refillNeeded.await();
+                    }
+                } finally {
+                    refillLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("后台生成验证码失败: {}", e.getMessage());
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void signalRefill() {
+        refillLock.lock();
+        try {
+            refillNeeded.signalAll();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+}
\ No newline at end of file
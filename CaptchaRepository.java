@@ -18,9 +18,15 @@ public interface CaptchaRepository extends JpaRepository<Captcha, String> {
     // 查找未使用的验证码
     Optional<Captcha> findByCaptchaIdAndUsedFalse(String captchaId);
 
-    // 标记验证码为已使用
+    // 标记验证码为已使用（只更新未使用的，返回值为 0 表示已被使用）
     @Modifying
     @Transactional
-    @Query("UPDATE Captcha c SET c.used = true WHERE c.captchaId = :captchaId")
+    @Query("UPDATE Captcha c SET c.used = true WHERE c.captchaId = :captchaId AND c.used = false")
     int markAsUsed(@Param("captchaId") String captchaId);
+
+    // 删除已过期或已使用的验证码
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Captcha c WHERE c.expireTime < :now OR c.used = true")
+    int deleteExpired(@Param("now") LocalDateTime now);
 }
\ No newline at end of file
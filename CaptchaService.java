@@ -1,81 +1,80 @@
 // src/main/java/com/demo/service/CaptchaService.java
 package com.demo.service;
 
-import com.demo.model.Captcha;
-import com.demo.repository.CaptchaRepository;
 import com.demo.util.CaptchaUtil;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CaptchaService {
 
-    private final CaptchaUtil captchaUtil;
-    private final CaptchaRepository captchaRepository;
+    private final CaptchaPool captchaPool;
+    private final CaptchaStore captchaStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${captcha.timeout:300}")
+    private long timeoutSeconds;
 
     /**
-     * 生成验证码并保存到 H2 数据库
+     * 从预生成池取出验证码并放入验证码存储
      */
-    @Transactional
+    @Timed("qa.service")
     public CaptchaUtil.CaptchaData generateCaptcha() {
-        CaptchaUtil.CaptchaData captchaData = captchaUtil.generateCaptcha();
-
-        // 保存到 H2 数据库
-        Captcha captcha = new Captcha();
-        captcha.setCaptchaId(captchaData.getCaptchaId());
-        captcha.setCaptchaCode(captchaData.getCode());
-        captcha.setBase64Image(captchaData.getBase64Image());
-        captcha.setExpireTime(LocalDateTime.now().plusMinutes(5)); // 5分钟后过期
-        captcha.setUsed(false);
+        CaptchaUtil.CaptchaData captchaData = captchaPool.take();
 
-        captchaRepository.save(captcha);
+        captchaStore.save(captchaData.getCaptchaId(), captchaData.getCode(), captchaData.getImage(),
+                System.currentTimeMillis() + timeoutSeconds * 1000);
 
-        System.out.println("✅ 验证码保存到H2数据库: " + captchaData.getCaptchaId() + ", 代码: " + captchaData.getCode());
+        log.debug("验证码已保存: {}", captchaData.getCaptchaId());
+        count("generated");
         return captchaData;
     }
 
     /**
-     * 验证验证码 - 从 H2 数据库查询
+     * 读取验证码图片（PNG），验证码不存在、已使用或已过期时返回空
      */
-    @Transactional
-    public boolean validateCaptcha(String captchaId, String userInput) {
-        System.out.println("🔍 验证验证码 - ID: " + captchaId + ", 用户输入: " + userInput);
+    @Timed("qa.service")
+    public Optional<byte[]> getCaptchaImage(String captchaId) {
+        return captchaStore.findImage(captchaId);
+    }
 
+    /**
+     * 验证验证码 - 无论成功与否，验证码都只能使用一次
+     */
+    @Timed("qa.service")
+    public boolean validateCaptcha(String captchaId, String userInput) {
         if (captchaId == null || userInput == null) {
+            count("failed");
             return false;
         }
 
-        // 从 H2 数据库查询
-        Captcha captcha = captchaRepository.findByCaptchaIdAndUsedFalse(captchaId)
-                .orElse(null);
+        CaptchaStore.Entry captcha = captchaStore.consume(captchaId).orElse(null);
 
         if (captcha == null) {
-            System.out.println("❌ 验证码不存在或已使用");
+            log.debug("验证码不存在或已使用: {}", captchaId);
+            count("failed");
             return false;
         }
 
         // 检查是否过期
-        if (LocalDateTime.now().isAfter(captcha.getExpireTime())) {
-            System.out.println("❌ 验证码已过期");
-            captcha.setUsed(true);
-            captchaRepository.save(captcha);
+        if (captcha.isExpired(System.currentTimeMillis())) {
+            log.debug("验证码已过期: {}", captchaId);
+            count("expired");
             return false;
         }
 
         // 比较验证码（忽略大小写）
-        boolean isValid = captcha.getCaptchaCode().equalsIgnoreCase(userInput.trim());
-        System.out.println("📊 验证结果: " + captcha.getCaptchaCode() + " vs " + userInput + " = " + isValid);
-
-        if (isValid) {
-            // 标记为已使用
-            captcha.setUsed(true);
-            captchaRepository.save(captcha);
-            System.out.println("✅ 验证成功");
-        }
+        boolean isValid = captcha.getCode().equalsIgnoreCase(userInput.trim());
+        log.debug("验证码 {} 校验{}", captchaId, isValid ? "成功" : "失败");
+        count(isValid ? "validated" : "failed");
 
         return isValid;
     }
@@ -83,10 +82,13 @@ public class CaptchaService {
     /**
      * 删除验证码
      */
-    @Transactional
     public void removeCaptcha(String captchaId) {
         if (captchaId != null) {
-            captchaRepository.markAsUsed(captchaId);
+            captchaStore.remove(captchaId);
         }
     }
+
+    private void count(String outcome) {
+        meterRegistry.counter("qa.captcha", "outcome", outcome).increment();
+    }
 }
\ No newline at end of file
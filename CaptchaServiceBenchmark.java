@@ -0,0 +1,76 @@
+// src/jmh/java/com/demo/service/CaptchaServiceBenchmark.java
+package com.demo.service;
+
+import com.demo.DemoApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CaptchaService 的生成和校验，验证码存储分别使用内存实现和嵌入式 H2（jpa）
+ * 校验会消费验证码，所以只测“生成”和“生成 + 校验”，两者之差即校验的开销
+ * 关闭预生成池（captcha.pool.size=0），每次生成都在调用线程上绘图，结果不受后台补充线程的节奏影响
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaptchaServiceBenchmark {
+
+    @Param({"memory", "jpa"})
+    private String storeType;
+
+    private ConfigurableApplicationContext context;
+    private CaptchaService captchaService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:captcha-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "security.password.benchmark-on-startup=false",
+                        "captcha.store.type=" + storeType,
+                        "captcha.pool.size=0",
+                        "logging.level.root=WARN",
+                        "logging.level.com.demo=WARN",
+                        "logging.level.org.hibernate.SQL=OFF",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF")
+                .run();
+        captchaService = context.getBean(CaptchaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return captchaService.generateCaptcha().getCaptchaId();
+    }
+
+    @Benchmark
+    public boolean generateAndValidate() {
+        var captcha = captchaService.generateCaptcha();
+        return captchaService.validateCaptcha(captcha.getCaptchaId(), captcha.getCode());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+// src/main/java/com/demo/service/CaptchaStore.java
+package com.demo.service;
+
+import lombok.Data;
+
+import java.util.Optional;
+
+/**
+ * 验证码存储
+ * 默认使用内存实现（captcha.store.type=memory），也可切换为 H2 表存储（captcha.store.type=jpa）
+ */
+public interface CaptchaStore {
+
+    /**
+     * 保存验证码，image 为 PNG 字节，expireAt 为过期时间（毫秒时间戳）
+     */
+    void save(String captchaId, String code, byte[] image, long expireAt);
+
+    /**
+     * 读取未使用且未过期的验证码图片，不会作废验证码
+     */
+    Optional<byte[]> findImage(String captchaId);
+
+    /**
+     * 原子地取出并作废验证码（一次性），不存在或已使用时返回空
+     * 已过期的验证码同样会被作废并返回，由调用方判断 isExpired()
+     */
+    Optional<Entry> consume(String captchaId);
+
+    /**
+     * 作废验证码
+     */
+    void remove(String captchaId);
+
+    @Data
+    class Entry {
+        private final String captchaId;
+        private final String code;
+        private final byte[] image;
+        private final long expireAt;
+
+        public boolean isExpired(long now) {
+            return now > expireAt;
+        }
+    }
+}
\ No newline at end of file
@@ -9,7 +9,6 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Base64;
 import java.util.Random;
 import java.util.UUID;
 
@@ -27,13 +26,13 @@ public class CaptchaUtil {
     public static class CaptchaData {
         private final String captchaId;
         private final String code;
-        private final String base64Image;
+        private final byte[] image; // PNG 原始字节
         private final long expireTime;
 
-        public CaptchaData(String captchaId, String code, String base64Image) {
+        public CaptchaData(String captchaId, String code, byte[] image) {
             this.captchaId = captchaId;
             this.code = code;
-            this.base64Image = base64Image; // 已经是完整的 data:image/png;base64,xxxx
+            this.image = image;
             this.expireTime = System.currentTimeMillis() + 5 * 60 * 1000; // 5分钟过期
         }
     }
@@ -41,15 +40,14 @@ public class CaptchaUtil {
     public CaptchaData generateCaptcha() {
         String code = generateRandomCode();
         BufferedImage image = createCaptchaImage(code);
-        String base64Image = convertToBase64(image);
+        byte[] png = encodePng(image);
         String captchaId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
 
-        System.out.println("生成验证码: ID=" + captchaId + ", Code=" + code);
-
-        return new CaptchaData(captchaId, code, base64Image);
+        return new CaptchaData(captchaId, code, png);
     }
 
-    private String generateRandomCode() {
+    // 以下各步骤为包内可见，供 CaptchaBenchmark 单独测量
+    String generateRandomCode() {
         StringBuilder code = new StringBuilder();
         for (int i = 0; i < CODE_COUNT; i++) {
             code.append(CHAR_SET.charAt(random.nextInt(CHAR_SET.length())));
@@ -57,7 +55,7 @@ public class CaptchaUtil {
         return code.toString();
     }
 
-    private BufferedImage createCaptchaImage(String code) {
+    BufferedImage createCaptchaImage(String code) {
         BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
         Graphics2D g = image.createGraphics();
 
@@ -88,7 +86,7 @@ public class CaptchaUtil {
         return image;
     }
 
-    private void drawInterferenceLines(Graphics2D g) {
+    void drawInterferenceLines(Graphics2D g) {
         // 绘制浅色干扰线
         g.setColor(new Color(180, 180, 200, 30));
         for (int i = 0; i < 8; i++) {
@@ -109,7 +107,7 @@ public class CaptchaUtil {
         }
     }
 
-    private void drawCode(Graphics2D g, String code) {
+    void drawCode(Graphics2D g, String code) {
         g.setFont(new Font("Arial", Font.BOLD, 28));
 
         for (int i = 0; i < code.length(); i++) {
@@ -139,12 +137,10 @@ public class CaptchaUtil {
         }
     }
 
-    private String convertToBase64(BufferedImage image) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    byte[] encodePng(BufferedImage image) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(2048)) {
             ImageIO.write(image, "png", baos);
-            byte[] bytes = baos.toByteArray();
-            // 返回完整的 data:image/png;base64,xxxx 格式
-            return "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+            return baos.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException("验证码生成失败", e);
         }
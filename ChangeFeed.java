@@ -0,0 +1,18 @@
+// src/main/java/com/demo/dto/ChangeFeed.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * /api/questions/changes 的响应
+ * cursor 作为下次请求的 since；reset 为 true 时客户端应丢弃本地缓存后从 cursor 继续
+ */
+@Data
+public class ChangeFeed {
+    private final List<QuestionChangeView> changes;
+    private final long cursor;
+    private final boolean hasMore;
+    private final boolean reset;
+}
\ No newline at end of file
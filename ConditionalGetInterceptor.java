@@ -0,0 +1,78 @@
+// src/main/java/com/demo/config/ConditionalGetInterceptor.java
+package com.demo.config;
+
+import com.demo.service.QuestionListVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.Objects;
+
+/**
+ * 问题列表和详情页的条件 GET，客户端缓存仍然有效时直接返回 304，不加载实体也不渲染模板
+ * 列表页在控制器之前按进程内的变更版本判断；详情页的版本号需要查询，由控制器在 ReadExecutor 上
+ * 查到版本后调用 {@link #checkQuestionNotModified}（页面缓存命中时直接用缓存页面的版本，不访问数据库）
+ * 两者的 ETag 都带有启动标识，重新部署后模板和带哈希的静态资源 URL 可能已变化，旧页面不再返回 304
+ * 页面包含当前用户的操作按钮，所以 ETag 中带上用户名的哈希，并标记为 private；
+ * 详情页的表单还带有 CSRF token，已有会话时把 token 也计入（列表页没有表单，不读取 token，也就不会为匿名访问创建会话）
+ * 启用读写分离时，详情页版本号与内容一样从读库读取（读库只会前进，内容不会比 ETag 旧）；
+ * 列表版本号来自主库提交，读取走读库的列表请求不做条件 GET
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final QuestionListVersion questionListVersion;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求的第二次分派不再检查
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+
+        if (!questionListVersion.coversCurrentReads()) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String tag = tag("l" + questionListVersion.current(), request, false);
+        return !new ServletWebRequest(request, response).checkNotModified(tag, questionListVersion.getLastModified());
+    }
+
+    /**
+     * 详情页的条件 GET，可以在 ReadExecutor 的线程上调用；返回 true 时已写入 304，控制器不再渲染
+     * 不使用 Last-Modified：修改时间不含启动标识，重新部署后仍会命中
+     */
+    public boolean checkQuestionNotModified(HttpServletRequest request, HttpServletResponse response,
+                                            Long questionId, long version) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String tag = tag("q" + questionId + "-" + questionListVersion.instanceId() + "-" + version, request, true);
+        return new ServletWebRequest(request, response).checkNotModified(tag);
+    }
+
+    private static String tag(String etag, HttpServletRequest request, boolean includeCsrf) {
+        return "W/\"" + etag + "-" + Integer.toHexString(viewerHash(request, includeCsrf)) + "\"";
+    }
+
+    /**
+     * 延迟生成的 CsrfToken 在第一次 getToken() 时才保存到会话，没有会话时调用会新建一个，
+     * 所以只在详情页且会话已存在时读取
+     */
+    private static int viewerHash(HttpServletRequest request, boolean includeCsrf) {
+        Principal principal = request.getUserPrincipal();
+        String token = null;
+        if (includeCsrf && request.getSession(false) != null) {
+            CsrfToken csrf = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+            token = csrf != null ? csrf.getToken() : null;
+        }
+        return Objects.hash(principal != null ? principal.getName() : null, token);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+// src/main/java/com/demo/monitor/CountingStatementInspector.java
+package com.demo.monitor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 每准备一条 SQL 都会经过这里，计入当前线程的 SqlStatementContext
+ * 通过 spring.jpa.properties.hibernate.session_factory.statement_inspector 注册
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementContext.record(sql);
+        return sql;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+// src/main/java/com/demo/dto/CursorPage.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 基于游标（keyset）的分页结果
+ */
+@Data
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor; // 下一页游标，没有下一页时为 null
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+// src/main/java/com/demo/config/H2ReplicaFeeder.java
+package com.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 本地验证读写分离用：没有真正的复制时，定期把主库 H2 的全部数据导出再导入读库 H2
+ * 两次同步之间读库落后于主库，正好用来观察写后读粘滞；同步期间（包括第一次同步完成前）读请求临时走主库
+ * 配置 app.datasource.read.h2-feed-interval-ms 时才启用，生产环境的读库由数据库自身复制
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.read", name = {"url", "h2-feed-interval-ms"})
+@Slf4j
+public class H2ReplicaFeeder {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public H2ReplicaFeeder(@Qualifier("primaryDataSource") DataSource primary,
+                           @Qualifier("replicaDataSource") DataSource replica,
+                           ReadWriteRoutingDataSource routingDataSource) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routingDataSource = routingDataSource;
+        // 第一次同步完成前读库还是空的
+        routingDataSource.setReplicaEnabled(false);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.read.h2-feed-interval-ms}")
+    public void feed() {
+        long start = System.currentTimeMillis();
+        Path script = null;
+        try {
+            script = Files.createTempFile("qa-replica-", ".sql");
+            String path = script.toAbsolutePath().toString().replace("'", "''");
+            try (Connection connection = primary.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT TO '" + path + "'");
+            }
+
+            // 导入失败时读库可能不完整，保持停用直到下一次同步成功
+            routingDataSource.setReplicaEnabled(false);
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + path + "'");
+            }
+            routingDataSource.setReplicaEnabled(true);
+            log.debug("读库同步完成, 耗时 {}ms", System.currentTimeMillis() - start);
+        } catch (IOException | SQLException e) {
+            log.warn("读库同步失败: {}", e.getMessage());
+        } finally {
+            if (script != null) {
+                try {
+                    Files.deleteIfExists(script);
+                } catch (IOException ignored) {
+                    // 临时文件，删除失败不影响
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
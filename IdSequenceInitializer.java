@@ -0,0 +1,51 @@
+// src/main/java/com/demo/config/IdSequenceInitializer.java
+package com.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 主键从 IDENTITY 改为序列后，已有数据库中的序列从 1 开始，会与现有 ID 冲突
+ * 启动时（表结构更新之后、接受请求之前）把序列推到 MAX(id) 之后
+ */
+@Component
+@Slf4j
+public class IdSequenceInitializer {
+
+    private static final int ALLOCATION_SIZE = 50; // 与实体上 @SequenceGenerator 的 allocationSize 一致
+
+    private static final String[][] SEQUENCES = {
+            {"users", "user_seq"},
+            {"questions", "question_seq"},
+            {"replies", "reply_seq"},
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 依赖 EntityManagerFactory，保证 Flyway 迁移已经建好表和序列
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        for (String[] entry : SEQUENCES) {
+            String table = entry[0];
+            String sequence = entry[1];
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+
+            // pooled 优化器取到序列值 N 后使用 (N - 49) ~ N，所以序列值至少要比 MAX(id) 大一个分配块
+            long required = (maxId != null ? maxId : 0L) + ALLOCATION_SIZE;
+            if (next == null || next < required) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + required);
+                log.info("序列 {} 已对齐到 {} (表 {} 最大ID {})", sequence, required, table, maxId);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+// src/main/java/com/demo/dto/ImportRecord.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量导入的一行 NDJSON 记录
+ * <pre>
+ * {"type":"user","ref":"u1","username":"alice","password":"$2a$10$...","email":"a@x.com","createdAt":"2020-01-01T10:00:00"}
+ * {"type":"question","ref":"q1","author":"u1","title":"...","content":"...","createdAt":"..."}
+ * {"type":"reply","question":"q1","author":"alice","content":"...","createdAt":"..."}
+ * </pre>
+ * author 可以是本次导入中用户的 ref，也可以是已有用户名；question 可以是本次导入的 ref，也可以是已有问题ID
+ */
+@Data
+public class ImportRecord {
+    private String type;
+    private String ref;
+    private String username;
+    private String password; // 必须是 BCrypt 哈希，导入时不再逐条计算
+    private String email;
+    private String author;
+    private String question;
+    private String title;
+    private String content;
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
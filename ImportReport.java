@@ -0,0 +1,41 @@
+// src/main/java/com/demo/dto/ImportReport.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果
+ */
+@Data
+public class ImportReport {
+
+    private static final int MAX_ERRORS = 100;
+
+    private long lines;
+    private long users;
+    private long questions;
+    private long replies;
+    private long skipped;
+    private long elapsedMillis;
+    private boolean completed;
+    private String failure; // 某个批次提交失败时的原因，之前的批次已提交
+    private List<String> errors = new ArrayList<>();
+
+    public void skip(long lineNumber, String reason) {
+        skipped++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("第 " + lineNumber + " 行: " + reason);
+        }
+    }
+
+    public long getImportedRows() {
+        return users + questions + replies;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? getImportedRows() * 1000 / elapsedMillis : getImportedRows();
+    }
+}
\ No newline at end of file
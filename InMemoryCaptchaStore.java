@@ -0,0 +1,150 @@
+// src/main/java/com/demo/service/InMemoryCaptchaStore.java
+package com.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内存验证码存储：按 ID 哈希分片，每个分片一把锁
+ * 分片内按插入顺序保存（TTL 固定，插入顺序即过期顺序），超出容量时淘汰最早的验证码
+ */
+@Component
+@ConditionalOnProperty(name = "captcha.store.type", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryCaptchaStore implements CaptchaStore {
+
+    private final Shard[] shards;
+    private final int shardCapacity;
+
+    public InMemoryCaptchaStore(@Value("${captcha.store.shards:16}") int shardCount,
+                                @Value("${captcha.store.capacity:100000}") int capacity) {
+        int count = Math.max(1, shardCount);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardCapacity = Math.max(1, capacity / count);
+    }
+
+    @Override
+    public void save(String captchaId, String code, byte[] image, long expireAt) {
+        Shard shard = shardFor(captchaId);
+        long now = System.currentTimeMillis();
+        shard.lock.lock();
+        try {
+            shard.purgeExpired(now);
+            if (shard.entries.size() >= shardCapacity) {
+                // 容量已满，淘汰最早生成的验证码
+                Iterator<Entry> eldest = shard.entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            shard.entries.put(captchaId, new Entry(captchaId, code, image, expireAt));
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> findImage(String captchaId) {
+        if (captchaId == null) {
+            return Optional.empty();
+        }
+        Shard shard = shardFor(captchaId);
+        shard.lock.lock();
+        try {
+            Entry entry = shard.entries.get(captchaId);
+            if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entry.getImage());
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Entry> consume(String captchaId) {
+        if (captchaId == null) {
+            return Optional.empty();
+        }
+        Shard shard = shardFor(captchaId);
+        shard.lock.lock();
+        try {
+            return Optional.ofNullable(shard.entries.remove(captchaId));
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(String captchaId) {
+        consume(captchaId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.entries.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 定时清理过期验证码
+     */
+    @Scheduled(fixedDelayString = "${captcha.store.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                purged += shard.purgeExpired(now);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (purged > 0) {
+            log.debug("清理过期验证码: {}", purged);
+        }
+    }
+
+    private Shard shardFor(String captchaId) {
+        int h = captchaId.hashCode();
+        return shards[((h ^ (h >>> 16)) & 0x7fffffff) % shards.length];
+    }
+
+    private static class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        // 调用方需持有锁
+        int purgeExpired(long now) {
+            int purged = 0;
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                if (!it.next().getValue().isExpired(now)) {
+                    break;
+                }
+                it.remove();
+                purged++;
+            }
+            return purged;
+        }
+    }
+}
\ No newline at end of file
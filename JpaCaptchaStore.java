@@ -0,0 +1,87 @@
+// src/main/java/com/demo/service/JpaCaptchaStore.java
+package com.demo.service;
+
+import com.demo.model.Captcha;
+import com.demo.repository.CaptchaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * 基于 H2 captchas 表的验证码存储（captcha.store.type=jpa）
+ */
+@Component
+@ConditionalOnProperty(name = "captcha.store.type", havingValue = "jpa")
+@RequiredArgsConstructor
+@Slf4j
+public class JpaCaptchaStore implements CaptchaStore {
+
+    private final CaptchaRepository captchaRepository;
+
+    @Override
+    @Transactional
+    public void save(String captchaId, String code, byte[] image, long expireAt) {
+        Captcha captcha = new Captcha();
+        captcha.setCaptchaId(captchaId);
+        captcha.setCaptchaCode(code);
+        captcha.setImagePng(image);
+        captcha.setExpireTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(expireAt), ZoneId.systemDefault()));
+        captcha.setUsed(false);
+        captchaRepository.save(captcha);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<byte[]> findImage(String captchaId) {
+        if (captchaId == null) {
+            return Optional.empty();
+        }
+        return captchaRepository.findByCaptchaIdAndUsedFalse(captchaId)
+                .filter(c -> LocalDateTime.now().isBefore(c.getExpireTime()))
+                .map(Captcha::getImagePng);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Entry> consume(String captchaId) {
+        if (captchaId == null) {
+            return Optional.empty();
+        }
+        Optional<Captcha> captcha = captchaRepository.findByCaptchaIdAndUsedFalse(captchaId);
+        // 条件更新保证并发下只有一个请求能用掉同一个验证码
+        if (!captcha.isPresent() || captchaRepository.markAsUsed(captchaId) == 0) {
+            return Optional.empty();
+        }
+        Captcha c = captcha.get();
+        return Optional.of(new Entry(c.getCaptchaId(), c.getCaptchaCode(), null,
+                c.getExpireTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    @Override
+    @Transactional
+    public void remove(String captchaId) {
+        if (captchaId != null) {
+            captchaRepository.markAsUsed(captchaId);
+        }
+    }
+
+    /**
+     * 定时删除已过期的验证码行
+     */
+    @Scheduled(fixedDelayString = "${captcha.store.purge-interval:60000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = captchaRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("删除过期验证码: {}", deleted);
+        }
+    }
+}
\ No newline at end of file
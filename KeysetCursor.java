@@ -0,0 +1,43 @@
+// src/main/java/com/demo/util/KeysetCursor.java
+package com.demo.util;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 按 (时间, id) 排序的 keyset 分页游标，对外编码为 URL 安全的 Base64 字符串
+ */
+@Data
+public class KeysetCursor {
+    private final LocalDateTime timestamp; // 排序时间列：createdAt 或 lastActivityAt
+    private final Long id;
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，格式不正确时返回 null（按第一页处理）
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0) {
+                return null;
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
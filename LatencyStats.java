@@ -0,0 +1,63 @@
+// src/loadtest/java/com/demo/loadtest/LatencyStats.java
+package com.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单个接口的延迟样本（纳秒），每个压测线程各自一份，结束后合并，避免记录时加锁
+ */
+class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos, boolean ok) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyStats other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, count + other.count);
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    Map<String, Object> summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughput", round(count / elapsedSeconds));
+        summary.put("p50Ms", percentileMillis(sorted, 0.50));
+        summary.put("p95Ms", percentileMillis(sorted, 0.95));
+        summary.put("p99Ms", percentileMillis(sorted, 0.99));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1e6));
+        return summary;
+    }
+
+    // nearest-rank 百分位
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return round(sorted[Math.max(0, rank - 1)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
\ No newline at end of file
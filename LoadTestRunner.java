@@ -0,0 +1,349 @@
+// src/loadtest/java/com/demo/loadtest/LoadTestRunner.java
+package com.demo.loadtest;
+
+import com.demo.DemoApplication;
+import com.demo.dto.ImportReport;
+import com.demo.service.BulkImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 端到端压测：在临时 H2 文件库上启动应用，批量导入种子数据，按权重混合请求核心接口，
+ * 输出各接口的 p50/p95/p99/max 延迟和吞吐量（JSON），并可与保存的基线对比
+ *
+ * 参数（系统属性）：
+ *   loadtest.users=50 loadtest.questions=2000 loadtest.replies-per-question=5
+ *   loadtest.concurrency=16 loadtest.warmup-seconds=15 loadtest.duration-seconds=60
+ *   loadtest.mix=list:40,detail:40,login:10,ask:5,reply:5
+ *   loadtest.output=build/loadtest/report.json
+ *   loadtest.baseline=path/to/baseline.json loadtest.tolerance=0.2
+ * 与基线相比 p95/p99 变慢或吞吐量下降超过 tolerance 时以退出码 1 结束
+ */
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private static final String LIST = "GET /questions";
+    private static final String DETAIL = "GET /questions/{id}";
+    private static final String LOGIN_PAGE = "GET /login";
+    private static final String ASK = "POST /questions/ask";
+    private static final String REPLY = "POST /questions/{id}/replies";
+
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final int questions = Integer.getInteger("loadtest.questions", 2000);
+    private final int repliesPerQuestion = Integer.getInteger("loadtest.replies-per-question", 5);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 15);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+    private final String mix = System.getProperty("loadtest.mix", "list:40,detail:40,login:10,ask:5,reply:5");
+    private final Path output = Paths.get(System.getProperty("loadtest.output", "build/loadtest/report.json"));
+    private final String baseline = System.getProperty("loadtest.baseline");
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final ObjectMapper lineMapper = new ObjectMapper(); // NDJSON 每行不换行
+
+    private String baseUrl;
+    private long[] questionIds;
+    private String[] operations; // 按权重展开，随机取一个
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTestRunner().run());
+    }
+
+    int run() throws Exception {
+        Path dataDir = Files.createTempDirectory("qa-loadtest");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("db").toAbsolutePath() + ";MODE=MySQL",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.show-sql=false",
+                        // 逐条 SQL/参数日志会主导延迟，压测时关闭
+                        "logging.level.com.demo=WARN",
+                        "logging.level.org.hibernate.SQL=OFF",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF")
+                .run();
+        try {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed(context, dataDir);
+            operations = expandMix(mix);
+
+            Map<String, Object> report = drive();
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            objectMapper.writeValue(output.toFile(), report);
+            System.out.println(objectMapper.writeValueAsString(report));
+            System.out.println("压测报告已写入 " + output.toAbsolutePath());
+
+            return baseline != null ? compareWithBaseline(report) : 0;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 通过 BulkImportService 导入种子数据，所有用户共用一个预先计算的密码哈希
+     */
+    private void seed(ConfigurableApplicationContext context, Path dataDir) throws IOException {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Path file = dataDir.resolve("seed.ndjson");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "压测内容 ".repeat(60);
+
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int u = 0; u < users; u++) {
+                writeLine(out, Map.of("type", "user", "ref", "u" + u, "username", "load" + u, "password", hash));
+            }
+            for (int q = 0; q < questions; q++) {
+                writeLine(out, Map.of("type", "question", "ref", "q" + q, "author", "u" + random.nextInt(users),
+                        "title", "压测问题 " + q, "content", body));
+                for (int r = 0; r < repliesPerQuestion; r++) {
+                    writeLine(out, Map.of("type", "reply", "question", "q" + q, "author", "u" + random.nextInt(users),
+                            "content", "压测回复 " + r));
+                }
+            }
+        }
+
+        ImportReport importReport;
+        try (InputStream in = Files.newInputStream(file)) {
+            importReport = context.getBean(BulkImportService.class).importNdjson(in);
+        }
+        System.out.printf("种子数据: 用户 %d, 问题 %d, 回复 %d, %d 行/秒%n", importReport.getUsers(),
+                importReport.getQuestions(), importReport.getReplies(), importReport.getRowsPerSecond());
+
+        questionIds = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM questions", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void writeLine(BufferedWriter out, Map<String, String> record) throws IOException {
+        out.write(lineMapper.writeValueAsString(record));
+        out.newLine();
+    }
+
+    private Map<String, Object> drive() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + durationSeconds * 1_000_000_000L;
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            VirtualUser vu = new VirtualUser("load" + (i % users), warmupEnd, end);
+            virtualUsers.add(vu);
+            Thread t = new Thread(vu, "loadtest-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        Map<String, LatencyStats> merged = new LinkedHashMap<>();
+        for (String op : new String[]{LIST, DETAIL, LOGIN_PAGE, ASK, REPLY}) {
+            merged.put(op, new LatencyStats());
+        }
+        long lastCompletion = warmupEnd;
+        for (VirtualUser vu : virtualUsers) {
+            vu.stats.forEach((op, stats) -> merged.get(op).merge(stats));
+            lastCompletion = Math.max(lastCompletion, vu.lastCompletion);
+        }
+
+        // 吞吐量按实际计时窗口计算：最后一个请求常在 end 之后才完成，线程提前终止时窗口又会更短
+        double elapsedSeconds = lastCompletion > warmupEnd ? (lastCompletion - warmupEnd) / 1e9 : durationSeconds;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        merged.forEach((op, stats) -> endpoints.put(op, stats.summarize(elapsedSeconds)));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", users);
+        config.put("questions", questions);
+        config.put("repliesPerQuestion", repliesPerQuestion);
+        config.put("concurrency", concurrency);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("durationSeconds", durationSeconds);
+        config.put("mix", mix);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 1000) / 1000.0);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private int compareWithBaseline(Map<String, Object> report) throws IOException {
+        JsonNode base = objectMapper.readTree(Paths.get(baseline).toFile()).path("endpoints");
+        JsonNode current = objectMapper.valueToTree(report).path("endpoints");
+        int regressions = 0;
+
+        System.out.printf("%-32s %12s %12s %12s%n", "接口", "p95(ms)", "p99(ms)", "吞吐量(/s)");
+        for (var it = current.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            JsonNode old = base.path(entry.getKey());
+            if (old.isMissingNode() || old.path("requests").asLong() == 0) {
+                continue;
+            }
+            JsonNode now = entry.getValue();
+            boolean slower = now.path("p95Ms").asDouble() > old.path("p95Ms").asDouble() * (1 + tolerance)
+                    || now.path("p99Ms").asDouble() > old.path("p99Ms").asDouble() * (1 + tolerance);
+            boolean lessThroughput = now.path("throughput").asDouble() < old.path("throughput").asDouble() * (1 - tolerance);
+            System.out.printf("%-32s %5.1f→%-6.1f %5.1f→%-6.1f %5.0f→%-6.0f %s%n", entry.getKey(),
+                    old.path("p95Ms").asDouble(), now.path("p95Ms").asDouble(),
+                    old.path("p99Ms").asDouble(), now.path("p99Ms").asDouble(),
+                    old.path("throughput").asDouble(), now.path("throughput").asDouble(),
+                    slower || lessThroughput ? "退化" : "");
+            if (slower || lessThroughput) {
+                regressions++;
+            }
+        }
+        System.out.println(regressions == 0 ? "与基线相比无退化" : regressions + " 个接口相对基线退化");
+        return regressions == 0 ? 0 : 1;
+    }
+
+    private static String[] expandMix(String mix) {
+        List<String> expanded = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            String op;
+            switch (kv[0]) {
+                case "list": op = LIST; break;
+                case "detail": op = DETAIL; break;
+                case "login": op = LOGIN_PAGE; break;
+                case "ask": op = ASK; break;
+                case "reply": op = REPLY; break;
+                default: throw new IllegalArgumentException("未知的请求类型: " + kv[0]);
+            }
+            for (int i = 0; i < Integer.parseInt(kv[1]); i++) {
+                expanded.add(op);
+            }
+        }
+        return expanded.toArray(new String[0]);
+    }
+
+    /**
+     * 一个压测线程 = 一个已登录用户（独立的 HttpClient 和会话 Cookie）
+     */
+    private class VirtualUser implements Runnable {
+
+        private final String username;
+        private final long warmupEnd;
+        private final long end;
+        private final Map<String, LatencyStats> stats = new LinkedHashMap<>();
+        private long lastCompletion; // 最后一个计入统计的请求完成时间，join 之后读取
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private String csrfToken;
+
+        VirtualUser(String username, long warmupEnd, long end) {
+            this.username = username;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            try {
+                login();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    String op = operations[random.nextInt(operations.length)];
+                    long questionId = questionIds[random.nextInt(questionIds.length)];
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = execute(op, questionId, random) < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    if (start >= warmupEnd) {
+                        lastCompletion = System.nanoTime();
+                        stats.computeIfAbsent(op, k -> new LatencyStats()).record(lastCompletion - start, ok);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println(Thread.currentThread().getName() + " 终止: " + e);
+            }
+        }
+
+        private int execute(String op, long questionId, ThreadLocalRandom random) throws IOException, InterruptedException {
+            switch (op) {
+                case LIST:
+                    return get("/questions").statusCode();
+                case DETAIL:
+                    return get("/questions/" + questionId).statusCode();
+                case LOGIN_PAGE:
+                    return get("/login").statusCode();
+                case ASK:
+                    return post("/questions/ask", Map.of("title", "压测提问 " + random.nextInt(),
+                            "content", "压测提问内容", "_csrf", csrfToken)).statusCode();
+                case REPLY:
+                    return post("/questions/" + questionId + "/replies",
+                            Map.of("content", "压测回复", "_csrf", csrfToken)).statusCode();
+                default:
+                    throw new IllegalStateException(op);
+            }
+        }
+
+        private void login() throws IOException, InterruptedException {
+            get("/login");
+            HttpResponse<String> response = post("/login", Map.of("username", username, "password", PASSWORD));
+            String location = response.headers().firstValue("Location").orElse("");
+            if (location.contains("error")) {
+                throw new IllegalStateException("登录失败: " + username);
+            }
+            // 登录后会话ID会变化，CSRF token 从回复表单中重新读取
+            Matcher matcher = CSRF.matcher(get("/questions/" + questionIds[0]).body());
+            if (!matcher.find()) {
+                throw new IllegalStateException("未找到 CSRF token");
+            }
+            csrfToken = matcher.group(1);
+        }
+
+        private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+            return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpResponse<String> post(String path, Map<String, String> form) throws IOException, InterruptedException {
+            StringBuilder body = new StringBuilder();
+            form.forEach((k, v) -> body.append(body.length() == 0 ? "" : "&")
+                    .append(URLEncoder.encode(k, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(v, StandardCharsets.UTF_8)));
+            return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,41 @@
 // src/main/java/com/demo/controller/MainController.java
 package com.demo.controller;
 
+import com.demo.config.ConditionalGetInterceptor;
+import com.demo.dto.CursorPage;
+import com.demo.dto.QuestionPage;
+import com.demo.dto.QuestionSummary;
+import com.demo.dto.QuestionVersion;
 import com.demo.dto.RegisterRequest;
-import com.demo.model.Question;
+import com.demo.security.PasswordHashingBusyException;
+import com.demo.service.CaptchaPool;
 import com.demo.service.CaptchaService;
+import com.demo.service.ProfileService;
+import com.demo.service.QuestionPageCache;
 import com.demo.service.QuestionService;
+import com.demo.service.ReadExecutor;
 import com.demo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -28,23 +45,58 @@ public class MainController {
     private final QuestionService questionService;
     private final UserService userService;
     private final CaptchaService captchaService;
+    private final CaptchaPool captchaPool;
+    private final QuestionPageCache questionPageCache;
+    private final ProfileService profileService;
+    private final ReadExecutor readExecutor;
+    private final ConditionalGetInterceptor conditionalGet;
 
     @GetMapping("/")
     public String home() {
         return "redirect:/questions";
     }
 
+    /**
+     * 查询在 ReadExecutor 上执行，Tomcat 线程不等待数据库；视图在异步分派时渲染
+     */
     @GetMapping("/questions")
-    public String questionList(Model model) {
-        model.addAttribute("questions", questionService.getAllQuestions());
-        return "question/list";
+    public CompletableFuture<ModelAndView> questionList(@RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "sort", required = false) String sort) {
+        boolean byActivity = "activity".equals(sort);
+        return readExecutor.submit(() -> {
+            CursorPage<QuestionSummary> page = questionService.getQuestionFeed(cursor, byActivity);
+            ModelAndView mav = new ModelAndView("question/list");
+            mav.addObject("questions", page.getItems());
+            mav.addObject("sort", byActivity ? "activity" : null);
+            mav.addObject("nextCursor", page.getNextCursor());
+            mav.addObject("firstPage", cursor == null || cursor.isEmpty());
+            return mav;
+        });
     }
 
+    /**
+     * 页面缓存命中时不访问数据库，按缓存页面的版本直接在请求线程上做条件 GET；
+     * 未命中时版本查询、条件 GET 和渲染都在 ReadExecutor 上执行。返回 null 表示已写入 304
+     */
     @GetMapping("/questions/{id}")
-    public String questionDetail(@PathVariable Long id, Model model) {
-        Question question = questionService.getQuestionWithReplies(id);
-        model.addAttribute("question", question);
-        return "question/detail";
+    public CompletableFuture<ModelAndView> questionDetail(@PathVariable Long id,
+                                                          HttpServletRequest request, HttpServletResponse response) {
+        QuestionPage cached = questionPageCache.getIfCached(id, 0L);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(
+                    conditionalGet.checkQuestionNotModified(request, response, id, cached.getVersion())
+                            ? null : new ModelAndView("question/detail", "page", cached));
+        }
+        return readExecutor.submit(() -> {
+            // 一次按主键的查询，只取版本号；不存在的问题交给 getPage 抛出 404
+            Optional<QuestionVersion> version = questionService.getQuestionVersion(id);
+            if (version.isPresent()
+                    && conditionalGet.checkQuestionNotModified(request, response, id, version.get().getVersion())) {
+                return null;
+            }
+            long minVersion = version.map(QuestionVersion::getVersion).orElse(0L);
+            return new ModelAndView("question/detail", "page", questionPageCache.getPage(id, minVersion));
+        });
     }
 
     @GetMapping("/login")
@@ -71,7 +123,6 @@ public class MainController {
             session.setAttribute("captchaId", captchaData.getCaptchaId());
 
             model.addAttribute("captchaId", captchaData.getCaptchaId());
-            model.addAttribute("captchaImage", captchaData.getBase64Image());
 
             log.info("登录页面生成验证码: {}", captchaData.getCaptchaId());
         } catch (Exception e) {
@@ -92,7 +143,6 @@ public class MainController {
             session.setAttribute("captchaId", captchaData.getCaptchaId());
 
             model.addAttribute("captchaId", captchaData.getCaptchaId());
-            model.addAttribute("captchaImage", captchaData.getBase64Image());
 
             log.info("注册页面生成验证码: {}", captchaData.getCaptchaId());
         } catch (Exception e) {
@@ -166,7 +216,6 @@ public class MainController {
                 session.setAttribute("captchaId", newCaptchaData.getCaptchaId());
 
                 model.addAttribute("captchaId", newCaptchaData.getCaptchaId());
-                model.addAttribute("captchaImage", newCaptchaData.getBase64Image());
                 model.addAttribute("registerRequest", registerRequest);
             } catch (Exception e) {
                 log.error("重新生成验证码失败: {}", e.getMessage());
@@ -196,6 +245,8 @@ public class MainController {
             redirectAttributes.addFlashAttribute("success", "注册成功，请登录");
             return "redirect:/login";
 
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 交给 @ResponseStatus 返回 503
         } catch (RuntimeException e) {
             log.error("注册失败: {}", e.getMessage());
             model.addAttribute("error", e.getMessage());
@@ -206,7 +257,6 @@ public class MainController {
                 session.setAttribute("captchaId", newCaptchaData.getCaptchaId());
 
                 model.addAttribute("captchaId", newCaptchaData.getCaptchaId());
-                model.addAttribute("captchaImage", newCaptchaData.getBase64Image());
                 model.addAttribute("registerRequest", registerRequest);
             } catch (Exception ex) {
                 log.error("重新生成验证码失败: {}", ex.getMessage());
@@ -239,7 +289,7 @@ public class MainController {
             log.info("生成新验证码: {}", captchaData.getCaptchaId());
 
             result.put("captchaId", captchaData.getCaptchaId());
-            result.put("captchaImage", captchaData.getBase64Image());
+            result.put("captchaImage", "/captcha/" + captchaData.getCaptchaId() + ".png");
             result.put("success", "true");
             result.put("message", "验证码刷新成功");
 
@@ -252,6 +302,18 @@ public class MainController {
         return result;
     }
 
+    @GetMapping("/captcha/{captchaId}.png")
+    public ResponseEntity<byte[]> captchaImage(@PathVariable String captchaId) {
+        return captchaService.getCaptchaImage(captchaId)
+                .map(image -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .cacheControl(CacheControl.noStore())
+                        .body(image))
+                .orElseGet(() -> ResponseEntity.notFound()
+                        .cacheControl(CacheControl.noStore())
+                        .build());
+    }
+
     @GetMapping("/captcha/debug")
     @ResponseBody
     public Map<String, Object> debugCaptcha(HttpSession session) {
@@ -259,19 +321,21 @@ public class MainController {
         debugInfo.put("sessionId", session.getId());
         debugInfo.put("sessionCaptchaId", session.getAttribute("captchaId"));
         debugInfo.put("timestamp", System.currentTimeMillis());
+        debugInfo.put("pool", captchaPool.metrics());
         debugInfo.put("status", "ok");
         return debugInfo;
     }
 
     @GetMapping("/profile")
-    public String profile(Authentication authentication, Model model) {
+    public String profile(@RequestParam(value = "cursor", required = false) String cursor,
+                          Authentication authentication, Model model) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return "redirect:/login";
         }
 
         String username = authentication.getName();
         try {
-            model.addAttribute("user", userService.getUserByUsername(username));
+            model.addAttribute("profile", profileService.getProfile(username, cursor));
             return "auth/profile";
         } catch (RuntimeException e) {
             log.error("获取用户信息失败: {}", e.getMessage());
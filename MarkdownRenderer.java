@@ -0,0 +1,184 @@
+// src/main/java/com/demo/util/MarkdownRenderer.java
+package com.demo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 服务端 Markdown 渲染，支持的语法与 static/js/marked.js 相同：
+ * 标题、粗体/斜体/删除线、行内代码、代码块、列表、引用、水平线、链接、图片
+ * 先对整段文本做 HTML 转义再转换语法，输出中不会出现用户输入的标签；链接只允许 http(s)/mailto 和相对地址
+ * 输出规则变化时递增 VERSION，后台任务会重新渲染已保存的内容
+ */
+public final class MarkdownRenderer {
+
+    public static final int VERSION = 1;
+
+    private static final Pattern CONTROL_CHARS = Pattern.compile("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F\\x7F]");
+    private static final Pattern HEADING = Pattern.compile("^(#{1,6})\\s+(.*)$");
+    private static final Pattern HR = Pattern.compile("^\\s*(\\*\\*\\*+|---+|___+)\\s*$");
+    private static final Pattern QUOTE = Pattern.compile("^&gt;\\s?(.*)$");
+    private static final Pattern UNORDERED = Pattern.compile("^\\s*[-*+]\\s+(.*)$");
+    private static final Pattern ORDERED = Pattern.compile("^\\s*\\d+\\.\\s+(.*)$");
+
+    private static final Pattern CODE_SPAN = Pattern.compile("`([^`]+)`");
+    private static final Pattern IMAGE = Pattern.compile("!\\[([^\\]]*)\\]\\(([^)\\s]+)\\)");
+    private static final Pattern LINK = Pattern.compile("\\[([^\\]]+)\\]\\(([^)\\s]+)\\)");
+    private static final Pattern BOLD = Pattern.compile("\\*\\*(.+?)\\*\\*|__(.+?)__");
+    private static final Pattern ITALIC = Pattern.compile("\\*(.+?)\\*|(?<![\\p{L}\\p{N}])_(.+?)_(?![\\p{L}\\p{N}])");
+    private static final Pattern STRIKE = Pattern.compile("~~(.+?)~~");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\u0000(\\d+)\u0000");
+    private static final Pattern SCHEME = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]*):");
+
+    private MarkdownRenderer() {
+    }
+
+    public static String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String normalized = CONTROL_CHARS.matcher(markdown.replace("\r\n", "\n").replace('\r', '\n')).replaceAll("");
+        String[] lines = escape(normalized).split("\n", -1);
+
+        StringBuilder out = new StringBuilder(normalized.length() + 64);
+        int i = 0;
+        while (i < lines.length) {
+            String line = lines[i];
+            Matcher m;
+
+            if (line.startsWith("```")) {
+                StringBuilder code = new StringBuilder();
+                i++;
+                while (i < lines.length && !lines[i].startsWith("```")) {
+                    code.append(lines[i]).append('\n');
+                    i++;
+                }
+                i++; // 结束的 ```（没有时到文末）
+                out.append("<pre><code>").append(code).append("</code></pre>\n");
+            } else if (line.trim().isEmpty()) {
+                i++;
+            } else if ((m = HEADING.matcher(line)).matches()) {
+                int level = m.group(1).length();
+                out.append("<h").append(level).append('>').append(inline(m.group(2).trim()))
+                        .append("</h").append(level).append(">\n");
+                i++;
+            } else if (HR.matcher(line).matches()) {
+                out.append("<hr>\n");
+                i++;
+            } else if (QUOTE.matcher(line).matches()) {
+                List<String> quoted = new ArrayList<>();
+                while (i < lines.length && (m = QUOTE.matcher(lines[i])).matches()) {
+                    quoted.add(inline(m.group(1)));
+                    i++;
+                }
+                out.append("<blockquote><p>").append(String.join("<br>", quoted)).append("</p></blockquote>\n");
+            } else if (UNORDERED.matcher(line).matches() || ORDERED.matcher(line).matches()) {
+                Pattern item = UNORDERED.matcher(line).matches() ? UNORDERED : ORDERED;
+                String tag = item == UNORDERED ? "ul" : "ol";
+                out.append('<').append(tag).append('>');
+                while (i < lines.length && (m = item.matcher(lines[i])).matches()) {
+                    out.append("<li>").append(inline(m.group(1))).append("</li>");
+                    i++;
+                }
+                out.append("</").append(tag).append(">\n");
+            } else {
+                List<String> paragraph = new ArrayList<>();
+                while (i < lines.length && !lines[i].trim().isEmpty() && !startsBlock(lines[i])) {
+                    paragraph.add(inline(lines[i]));
+                    i++;
+                }
+                out.append("<p>").append(String.join("<br>", paragraph)).append("</p>\n");
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean startsBlock(String line) {
+        return line.startsWith("```")
+                || HEADING.matcher(line).matches()
+                || HR.matcher(line).matches()
+                || QUOTE.matcher(line).matches()
+                || UNORDERED.matcher(line).matches()
+                || ORDERED.matcher(line).matches();
+    }
+
+    /**
+     * 行内语法，输入已经转义；代码、链接、图片先替换为占位符，避免其内容再被当作强调语法处理
+     */
+    private static String inline(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        text = replace(CODE_SPAN, text, m -> hold(tokens, "<code>" + m.group(1) + "</code>"));
+        text = replace(IMAGE, text, m -> {
+            String url = safeUrl(m.group(2));
+            return url == null ? m.group(1) : hold(tokens, "<img src=\"" + url + "\" alt=\"" + m.group(1) + "\">");
+        });
+        text = replace(LINK, text, m -> {
+            String url = safeUrl(m.group(2));
+            return url == null ? m.group(1)
+                    : hold(tokens, "<a href=\"" + url + "\" target=\"_blank\" rel=\"nofollow noopener noreferrer\">")
+                    + m.group(1) + hold(tokens, "</a>");
+        });
+        text = replace(BOLD, text, m -> "<strong>" + (m.group(1) != null ? m.group(1) : m.group(2)) + "</strong>");
+        text = replace(ITALIC, text, m -> "<em>" + (m.group(1) != null ? m.group(1) : m.group(2)) + "</em>");
+        text = replace(STRIKE, text, m -> "<del>" + m.group(1) + "</del>");
+
+        // 占位符中可能嵌套占位符（链接文字中的代码），反复展开
+        while (PLACEHOLDER.matcher(text).find()) {
+            text = replace(PLACEHOLDER, text, m -> tokens.get(Integer.parseInt(m.group(1))));
+        }
+        return text;
+    }
+
+    /**
+     * 只允许 http、https、mailto 和相对地址；输入已转义，引号不会出现在属性值中
+     */
+    private static String safeUrl(String url) {
+        Matcher scheme = SCHEME.matcher(url);
+        if (scheme.find()) {
+            String name = scheme.group(1).toLowerCase(Locale.ROOT);
+            if (!name.equals("http") && !name.equals("https") && !name.equals("mailto")) {
+                return null;
+            }
+        }
+        return url;
+    }
+
+    private static String hold(List<String> tokens, String html) {
+        tokens.add(html);
+        return "\u0000" + (tokens.size() - 1) + "\u0000";
+    }
+
+    private static String replace(Pattern pattern, String text, Function<Matcher, String> replacer) {
+        Matcher m = pattern.matcher(text);
+        if (!m.find()) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 32);
+        do {
+            m.appendReplacement(sb, Matcher.quoteReplacement(replacer.apply(m)));
+        } while (m.find());
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '"': sb.append("&quot;"); break;
+                case '\'': sb.append("&#39;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
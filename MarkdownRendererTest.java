@@ -0,0 +1,136 @@
+// src/test/java/com/demo/util/MarkdownRendererTest.java
+package com.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 渲染结果由 detail-body.html（th:utext）和 main.js（replyContentHtml）原样输出，这里覆盖 XSS 相关的边界
+ */
+class MarkdownRendererTest {
+
+    private static final String LINK_ATTRS = " target=\"_blank\" rel=\"nofollow noopener noreferrer\"";
+
+    @Test
+    void dangerousSchemesAreNotLinked() {
+        String[] inputs = {
+                "[x](javascript:alert(1))",
+                "[x](JaVaScRiPt:alert(1))",
+                "[x](vbscript:msgbox)",
+                "[x](DATA:text/html,hi)",
+                "![p](data:image/svg+xml;base64,AAAA)",
+                "![p](Data:image/png;base64,AAAA)",
+        };
+        for (String input : inputs) {
+            String html = MarkdownRenderer.render(input);
+            assertFalse(html.contains("<a "), input + " => " + html);
+            assertFalse(html.contains("<img "), input + " => " + html);
+            assertNoActiveContent(html);
+        }
+        assertEquals("<p>x</p>\n", MarkdownRenderer.render("[x](DATA:text/html,hi)"));
+    }
+
+    @Test
+    void encodedColonStaysLiteral() {
+        // & 被转义，浏览器解码属性后得到的是字面的 &#58;，不构成协议，只是一个相对地址
+        String html = MarkdownRenderer.render("[x](javascript&#58;alert(1))");
+        assertTrue(html.contains("href=\"javascript&amp;#58;alert(1\""), html);
+        assertNoActiveContent(html);
+
+        html = MarkdownRenderer.render("[x](javascript&colon;alert(1))");
+        assertTrue(html.contains("href=\"javascript&amp;colon;alert(1\""), html);
+        assertNoActiveContent(html);
+    }
+
+    @Test
+    void whitespaceInsideUrlIsNotALink() {
+        // 浏览器会去掉 URL 中的制表符和首尾空白，这类地址不能被识别为链接
+        for (String input : new String[]{"[x](java\tscript:alert(1))", "[x]( javascript:alert(1))",
+                "![x](java\tscript:alert(1))", "[x](javascript :alert(1))"}) {
+            String html = MarkdownRenderer.render(input);
+            assertFalse(html.contains("<a "), input + " => " + html);
+            assertFalse(html.contains("<img "), input + " => " + html);
+        }
+    }
+
+    @Test
+    void controlCharactersAreStripped() {
+        String html = MarkdownRenderer.render("[x](\u0001javascript:alert(1))");
+        assertFalse(html.contains("<a "), html);
+        assertFalse(html.contains("\u0000"), html);
+    }
+
+    @Test
+    void quotesCannotLeaveAttributes() {
+        assertEquals("<p><a href=\"http://a&quot;onmouseover=&quot;alert(1\"" + LINK_ATTRS + ">x</a>)</p>\n",
+                MarkdownRenderer.render("[x](http://a\"onmouseover=\"alert(1))"));
+        assertEquals("<p><img src=\"http://a/i.png\" alt=\"a&quot; onerror=&quot;alert(1)\"></p>\n",
+                MarkdownRenderer.render("![a\" onerror=\"alert(1)](http://a/i.png)"));
+        assertEquals("<p><a href=\"/q?a=&#39;b&#39;\"" + LINK_ATTRS + ">x</a></p>\n",
+                MarkdownRenderer.render("[x](/q?a='b')"));
+    }
+
+    @Test
+    void codeInsideLinkText() {
+        assertEquals("<p><a href=\"https://example.com\"" + LINK_ATTRS + "><code>code</code></a></p>\n",
+                MarkdownRenderer.render("[`code`](https://example.com)"));
+        assertEquals("<p><a href=\"https://e.com/a_b_c\"" + LINK_ATTRS + "><strong>b</strong> <code>c</code></a></p>\n",
+                MarkdownRenderer.render("[**b** `c`](https://e.com/a_b_c)"));
+    }
+
+    @Test
+    void linkSyntaxInsideCodeIsLiteral() {
+        assertEquals("<p><code>[x](javascript:alert(1))</code></p>\n",
+                MarkdownRenderer.render("`[x](javascript:alert(1))`"));
+        assertEquals("<p><code>&lt;b&gt;**not bold**&lt;/b&gt;</code></p>\n",
+                MarkdownRenderer.render("`<b>**not bold**</b>`"));
+    }
+
+    @Test
+    void unclosedFenceRunsToEndAndStaysEscaped() {
+        assertEquals("<pre><code>&lt;script&gt;alert(1)&lt;/script&gt;\n[x](javascript:alert(1))\n</code></pre>\n",
+                MarkdownRenderer.render("```\n<script>alert(1)</script>\n[x](javascript:alert(1))"));
+        assertEquals("<pre><code></code></pre>\n", MarkdownRenderer.render("```"));
+    }
+
+    @Test
+    void closedFenceEndsCodeBlock() {
+        assertEquals("<pre><code>int a = 1 &lt; 2;\n</code></pre>\n<p>after</p>\n",
+                MarkdownRenderer.render("```java\nint a = 1 < 2;\n```\nafter"));
+    }
+
+    @Test
+    void safeUrlsAreKept() {
+        assertEquals("<p><a href=\"https://example.com\"" + LINK_ATTRS + ">x</a></p>\n",
+                MarkdownRenderer.render("[x](https://example.com)"));
+        assertEquals("<p><a href=\"mailto:a@b.c\"" + LINK_ATTRS + ">m</a></p>\n",
+                MarkdownRenderer.render("[m](mailto:a@b.c)"));
+        assertEquals("<p><a href=\"/questions/1\"" + LINK_ATTRS + ">r</a></p>\n",
+                MarkdownRenderer.render("[r](/questions/1)"));
+        assertEquals("<p><img src=\"HTTPS://e.com/a.png\" alt=\"i\"></p>\n",
+                MarkdownRenderer.render("![i](HTTPS://e.com/a.png)"));
+    }
+
+    @Test
+    void rawHtmlIsEscaped() {
+        assertEquals("<p>&lt;img src=x onerror=alert(1)&gt;</p>\n",
+                MarkdownRenderer.render("<img src=x onerror=alert(1)>"));
+        assertEquals("<h2>&lt;script&gt;x&lt;/script&gt;</h2>\n",
+                MarkdownRenderer.render("## <script>x</script>"));
+    }
+
+    private static void assertNoActiveContent(String html) {
+        String lower = html.toLowerCase(Locale.ROOT);
+        assertFalse(lower.contains("<script"), html);
+        assertFalse(lower.contains("href=\"javascript:"), html);
+        assertFalse(lower.contains("href=\"vbscript:"), html);
+        assertFalse(lower.contains("href=\"data:"), html);
+        assertFalse(lower.contains("src=\"data:"), html);
+        assertFalse(lower.contains("src=\"javascript:"), html);
+    }
+}
\ No newline at end of file
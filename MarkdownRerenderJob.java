@@ -0,0 +1,138 @@
+// src/main/java/com/demo/service/MarkdownRerenderJob.java
+package com.demo.service;
+
+import com.demo.dto.RenderSource;
+import com.demo.repository.QuestionRepository;
+import com.demo.repository.ReplyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 补齐/重新渲染 contentHtml：MarkdownRenderer.VERSION 升级后的历史数据，以及批量导入时未渲染的数据
+ * 启动时执行一次，之后按 markdown.rerender.interval-ms 定时检查；按ID分批，每批一个事务
+ */
+@Component
+@Slf4j
+public class MarkdownRerenderJob {
+
+    private final QuestionRepository questionRepository;
+    private final ReplyRepository replyRepository;
+    private final MarkdownService markdownService;
+    private final QuestionPageCache questionPageCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public MarkdownRerenderJob(QuestionRepository questionRepository,
+                               ReplyRepository replyRepository,
+                               MarkdownService markdownService,
+                               QuestionPageCache questionPageCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${markdown.rerender.batch-size:200}") int batchSize) {
+        this.questionRepository = questionRepository;
+        this.replyRepository = replyRepository;
+        this.markdownService = markdownService;
+        this.questionPageCache = questionPageCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${markdown.rerender.interval-ms:60000}",
+            initialDelayString = "${markdown.rerender.interval-ms:60000}")
+    public void rerender() {
+        // 启动、定时和导入结束后都可能触发，同一时间只跑一个
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            int questions = rerenderQuestions();
+            int replies = rerenderReplies();
+            if (questions > 0 || replies > 0) {
+                questionPageCache.invalidateAll();
+                log.info("Markdown 重新渲染完成: 问题 {} 个, 回复 {} 条, 版本 {}, 耗时 {}ms",
+                        questions, replies, markdownService.getVersion(), System.currentTimeMillis() - start);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int rerenderQuestions() {
+        int version = markdownService.getVersion();
+        int total = 0;
+        Long lastId = 0L;
+        while (true) {
+            List<RenderSource> batch = questionRepository.findStaleRenderSources(
+                    version, lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                int n = 0;
+                for (RenderSource source : batch) {
+                    n += questionRepository.updateRendered(
+                            source.getId(), markdownService.render(source.getContent()), version, now);
+                }
+                return n;
+            });
+            total += updated != null ? updated : 0;
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int rerenderReplies() {
+        int version = markdownService.getVersion();
+        int total = 0;
+        Long lastId = 0L;
+        while (true) {
+            List<RenderSource> batch = replyRepository.findStaleRenderSources(
+                    version, lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(status -> {
+                Set<Long> questionIds = new HashSet<>();
+                int n = 0;
+                for (RenderSource source : batch) {
+                    if (replyRepository.updateRendered(
+                            source.getId(), markdownService.render(source.getContent()), version) > 0) {
+                        questionIds.add(source.getQuestionId());
+                        n++;
+                    }
+                }
+                // 回复内容变化也要让所属问题详情页的 ETag 失效
+                if (!questionIds.isEmpty()) {
+                    questionRepository.bumpVersions(questionIds, LocalDateTime.now());
+                }
+                return n;
+            });
+            total += updated != null ? updated : 0;
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
\ No newline at end of file
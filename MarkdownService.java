@@ -0,0 +1,92 @@
+// src/main/java/com/demo/service/MarkdownService.java
+package com.demo.service;
+
+import com.demo.util.MarkdownRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Markdown -> HTML 渲染，结果按内容的 SHA-256 缓存（LRU）
+ * 重复提交的相同内容、重新渲染任务中的重复内容都不会再次解析
+ */
+@Service
+public class MarkdownService {
+
+    private final int maxSize;
+    private final Map<String, String> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MarkdownService(@Value("${markdown.cache.max-size:1000}") int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MarkdownService.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 当前渲染器版本，与渲染结果一起保存
+     */
+    public int getVersion() {
+        return MarkdownRenderer.VERSION;
+    }
+
+    public String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String key = cacheKey(markdown);
+        synchronized (cache) {
+            String cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        String html = MarkdownRenderer.render(markdown);
+        if (maxSize > 0) {
+            synchronized (cache) {
+                cache.put(key, html);
+            }
+        }
+        return html;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    // 键中带上渲染器版本，版本变化后旧结果自然不再命中
+    private static String cacheKey(String markdown) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(markdown.getBytes(StandardCharsets.UTF_8));
+            return MarkdownRenderer.VERSION + ":" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
\ No newline at end of file
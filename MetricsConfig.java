@@ -0,0 +1,134 @@
+// src/main/java/com/demo/config/MetricsConfig.java
+package com.demo.config;
+
+import com.demo.security.BoundedPasswordEncoder;
+import com.demo.service.CaptchaPool;
+import com.demo.service.MarkdownService;
+import com.demo.service.QuestionPageCache;
+import com.demo.service.ReadExecutor;
+import com.demo.service.ReplyEventHub;
+import com.demo.service.SearchIndexService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer 指标：服务方法计时（@Timed）和各进程内组件的状态
+ * Hikari、Hibernate 统计和 HTTP 请求指标由 Spring Boot Actuator 自动注册
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder captchaPoolMetrics(CaptchaPool captchaPool) {
+        return registry -> {
+            Gauge.builder("qa.captcha.pool.size", captchaPool, CaptchaPool::size)
+                    .description("预生成验证码池中的数量")
+                    .register(registry);
+            FunctionCounter.builder("qa.captcha.pool.takes", captchaPool, CaptchaPool::getHits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("qa.captcha.pool.takes", captchaPool, CaptchaPool::getMisses)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("qa.captcha.pool.produced", captchaPool, CaptchaPool::getProduced)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder questionPageCacheMetrics(QuestionPageCache pageCache) {
+        return registry -> {
+            Gauge.builder("qa.page-cache.size", pageCache, QuestionPageCache::size).register(registry);
+            FunctionCounter.builder("qa.page-cache.requests", pageCache, QuestionPageCache::getHits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("qa.page-cache.requests", pageCache, QuestionPageCache::getMisses)
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder markdownCacheMetrics(MarkdownService markdownService) {
+        return registry -> {
+            Gauge.builder("qa.markdown.cache.size", markdownService, MarkdownService::size).register(registry);
+            FunctionCounter.builder("qa.markdown.renders", markdownService, MarkdownService::getHits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("qa.markdown.renders", markdownService, MarkdownService::getMisses)
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replyEventHubMetrics(ReplyEventHub hub) {
+        return registry -> {
+            Gauge.builder("qa.sse.subscribers", hub, ReplyEventHub::getSubscriberCount)
+                    .description("回复推送的在线连接数")
+                    .register(registry);
+            FunctionCounter.builder("qa.sse.events", hub, ReplyEventHub::getPublished).register(registry);
+            FunctionCounter.builder("qa.sse.overflow", hub, ReplyEventHub::getDropped)
+                    .tag("action", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("qa.sse.overflow", hub, ReplyEventHub::getSlowDisconnects)
+                    .tag("action", "disconnected")
+                    .register(registry);
+            Gauge.builder("qa.sse.stalled-senders", hub, ReplyEventHub::getStalledSenders)
+                    .description("卡在写入上的发送线程数（已补充新线程）")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder readExecutorMetrics(ReadExecutor readExecutor) {
+        return registry -> {
+            Gauge.builder("qa.read.executor.pending", readExecutor, ReadExecutor::getPending)
+                    .description("执行中和排队中的读任务")
+                    .register(registry);
+            FunctionCounter.builder("qa.read.executor.rejected", readExecutor, ReadExecutor::getRejectedCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder searchIndexMetrics(SearchIndexService searchIndex) {
+        return registry -> Gauge.builder("qa.search.documents", searchIndex, SearchIndexService::size)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder encoder) {
+        return registry -> {
+            FunctionTimer.builder("qa.password.hash", encoder,
+                            BoundedPasswordEncoder::getHashCount, BoundedPasswordEncoder::getHashNanos,
+                            TimeUnit.NANOSECONDS)
+                    .description("BCrypt 哈希/校验耗时，不含排队")
+                    .register(registry);
+            Gauge.builder("qa.password.pool.active", encoder, BoundedPasswordEncoder::getActiveCount)
+                    .register(registry);
+            Gauge.builder("qa.password.pool.queued", encoder, BoundedPasswordEncoder::getQueueSize)
+                    .register(registry);
+            Gauge.builder("qa.password.pool.in_flight", encoder, BoundedPasswordEncoder::getInFlightCount)
+                    .description("已提交且尚未结束的哈希，含调用方已超时放弃的")
+                    .register(registry);
+            FunctionCounter.builder("qa.password.abandoned", encoder, BoundedPasswordEncoder::getAbandonedCount)
+                    .register(registry);
+            FunctionCounter.builder("qa.password.rejected", encoder, BoundedPasswordEncoder::getRejectedCount)
+                    .register(registry);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+// src/main/java/com/demo/security/PasswordHashingBusyException.java
+package com.demo.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 密码哈希线程池已满，请求被快速拒绝（HTTP 503）
+ * 继承 AuthenticationServiceException，登录流程中会交给 SecurityConfig 的失败处理器
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
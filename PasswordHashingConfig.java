@@ -0,0 +1,52 @@
+// src/main/java/com/demo/config/PasswordHashingConfig.java
+package com.demo.config;
+
+import com.demo.security.BoundedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 密码哈希配置：BCrypt 成本因子和专用线程池
+ */
+@Configuration
+@Slf4j
+public class PasswordHashingConfig {
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${security.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${security.password.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${security.password.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${security.password.target-ms:250}")
+    private long targetMillis;
+
+    @Value("${security.password.benchmark-on-startup:true}")
+    private boolean benchmarkOnStartup;
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        // 默认只用一半的 CPU 做哈希，给读请求留出余量
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(strength, threads, queueCapacity, timeoutMillis);
+
+        if (benchmarkOnStartup) {
+            long millis = encoder.benchmark(3);
+            log.info("BCrypt 成本因子 {}: 单次哈希约 {}ms, 线程池 {} 线程, 队列 {}",
+                    strength, millis, threads, queueCapacity);
+            if (millis > targetMillis) {
+                log.warn("BCrypt 单次哈希 {}ms 超过目标 {}ms，请考虑降低 security.password.bcrypt-strength",
+                        millis, targetMillis);
+            }
+        }
+        return encoder;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+// src/main/java/com/demo/service/ProfileService.java
+package com.demo.service;
+
+import com.demo.dto.CursorPage;
+import com.demo.dto.ProfileView;
+import com.demo.dto.QuestionSummary;
+import com.demo.model.User;
+import com.demo.repository.QuestionRepository;
+import com.demo.repository.ReplyRepository;
+import com.demo.util.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 个人资料页：用固定数量的 SQL（用户、两次计数、一页提问）构建，不遍历 User 的关联集合
+ */
+@Service
+@RequiredArgsConstructor
+public class ProfileService {
+
+    private final UserService userService;
+    private final QuestionRepository questionRepository;
+    private final ReplyRepository replyRepository;
+
+    @Value("${profile.page-size:10}")
+    private int pageSize;
+
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public ProfileView getProfile(String username, String cursor) {
+        User user = userService.getUserByUsername(username);
+        Long userId = user.getId();
+
+        return new ProfileView(
+                user.getUsername(),
+                user.getEmail(),
+                user.getCreatedAt(),
+                questionRepository.countByUserId(userId),
+                replyRepository.countByUserId(userId),
+                getQuestionsOf(userId, cursor));
+    }
+
+    private CursorPage<QuestionSummary> getQuestionsOf(Long userId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<QuestionSummary> rows = after == null
+                ? questionRepository.findSummariesByUser(userId, limit)
+                : questionRepository.findSummariesByUserBefore(userId, after.getTimestamp(), after.getId(), limit);
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<QuestionSummary> items = rows.subList(0, pageSize);
+        QuestionSummary last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+}
\ No newline at end of file
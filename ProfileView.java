@@ -0,0 +1,19 @@
+// src/main/java/com/demo/dto/ProfileView.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 个人资料页读模型：基本信息 + 聚合计数 + “我的提问”分页
+ */
+@Data
+public class ProfileView {
+    private final String username;
+    private final String email;
+    private final LocalDateTime createdAt;
+    private final long questionCount;
+    private final long replyCount;
+    private final CursorPage<QuestionSummary> questions;
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+// src/test/java/com/demo/monitor/QueryBudget.java
+package com.demo.monitor;
+
+/**
+ * 集成测试用的断言：代码块内 Hibernate 执行的 SQL 超过上限时抛出 AssertionError
+ * <pre>
+ * try (QueryBudget budget = QueryBudget.expectAtMost(3)) {
+ *     mockMvc.perform(get("/questions/1"));
+ * }
+ * </pre>
+ * 只统计当前线程（以及由 ReadExecutor 传递了上下文的任务）执行的 SQL；异步请求需要在代码块内完成 asyncDispatch
+ */
+public final class QueryBudget implements AutoCloseable {
+
+    private final int maxStatements;
+    private final SqlStatementContext.Recording recording;
+
+    private QueryBudget(int maxStatements) {
+        this.maxStatements = maxStatements;
+        this.recording = SqlStatementContext.begin();
+    }
+
+    public static QueryBudget expectAtMost(int maxStatements) {
+        return new QueryBudget(maxStatements);
+    }
+
+    public int getCount() {
+        return recording.getCount();
+    }
+
+    @Override
+    public void close() {
+        SqlStatementContext.end(recording);
+        if (recording.getCount() > maxStatements) {
+            throw new AssertionError("期望最多 " + maxStatements + " 条 SQL，实际执行了 "
+                    + recording.getCount() + " 条:" + recording.describe(10));
+        }
+    }
+}
\ No newline at end of file
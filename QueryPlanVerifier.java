@@ -0,0 +1,215 @@
+// src/main/java/com/demo/monitor/QueryPlanVerifier.java
+package com.demo.monitor;
+
+import com.demo.config.ReplicaRoutingContext;
+import com.demo.repository.QuestionChangeRepository;
+import com.demo.repository.QuestionRepository;
+import com.demo.repository.ReplyRepository;
+import com.demo.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 热点查询的执行计划检查：逐个执行仓库中的热点查询并记录 Hibernate 实际生成的 SQL，
+ * 再在 H2 上 EXPLAIN，计划中出现全表扫描（tableScan）即视为失败
+ * 用法：java -jar app.jar --sql.plan-check.enabled=true [--sql.plan-check.exit=true]
+ * 表很小时优化器会认为扫描更便宜，应在有代表性数据的库上运行（可与 --import.file 同时使用，导入完成后再检查）
+ */
+@Component
+@ConditionalOnProperty(name = "sql.plan-check.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class QueryPlanVerifier {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan");
+
+    private final QuestionRepository questionRepository;
+    private final ReplyRepository replyRepository;
+    private final UserRepository userRepository;
+    private final QuestionChangeRepository changeRepository;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${sql.plan-check.exit:true}")
+    private boolean exitAfterCheck;
+
+    // 检查前执行 ANALYZE，让 H2 按实际数据分布估算选择度
+    @Value("${sql.plan-check.analyze:true}")
+    private boolean analyze;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> violations = ReplicaRoutingContext.onPrimary(this::verify);
+        violations.forEach(violation -> log.error("全表扫描: {}", violation));
+
+        if (exitAfterCheck) {
+            int code = SpringApplication.exit(context, () -> violations.isEmpty() ? 0 : 1);
+            System.exit(code);
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("执行计划检查未通过: " + violations.size() + " 条语句使用全表扫描");
+        }
+    }
+
+    /**
+     * 需要走索引的查询，参数只用于生成 SQL，取值不影响执行计划
+     * 后台批处理（校正、重新渲染、重建索引）按主键分批或本身就是全表处理，不在此列
+     */
+    private Map<String, Runnable> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 21);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("QuestionRepository.findLatestSummaries", () -> questionRepository.findLatestSummaries(page));
+        queries.put("QuestionRepository.findSummariesBefore", () -> questionRepository.findSummariesBefore(now, 1L, page));
+        queries.put("QuestionRepository.findMostActiveSummaries", () -> questionRepository.findMostActiveSummaries(page));
+        queries.put("QuestionRepository.findActiveSummariesBefore", () -> questionRepository.findActiveSummariesBefore(now, 1L, page));
+        queries.put("QuestionRepository.findSummariesByIds", () -> questionRepository.findSummariesByIds(Collections.singletonList(1L)));
+        queries.put("QuestionRepository.findWithUserById", () -> questionRepository.findWithUserById(1L));
+        queries.put("QuestionRepository.findVersionById", () -> questionRepository.findVersionById(1L));
+        queries.put("QuestionRepository.findSearchDocument", () -> questionRepository.findSearchDocument(1L));
+        queries.put("QuestionRepository.countByUserId", () -> questionRepository.countByUserId(1L));
+        queries.put("QuestionRepository.findSummariesByUser", () -> questionRepository.findSummariesByUser(1L, page));
+        queries.put("QuestionRepository.findSummariesByUserBefore", () -> questionRepository.findSummariesByUserBefore(1L, now, 1L, page));
+
+        queries.put("ReplyRepository.findFirstViews", () -> replyRepository.findFirstViews(1L, page));
+        queries.put("ReplyRepository.findViewsAfter", () -> replyRepository.findViewsAfter(1L, now, 1L, page));
+        queries.put("ReplyRepository.findByQuestionIdWithUser", () -> replyRepository.findByQuestionIdWithUser(1L));
+        queries.put("ReplyRepository.findViewById", () -> replyRepository.findViewById(1L));
+        queries.put("ReplyRepository.countByUserId", () -> replyRepository.countByUserId(1L));
+
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("plan-check"));
+        queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("plan-check"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("plan-check@example.com"));
+
+        queries.put("QuestionChangeRepository.findAfter", () -> changeRepository.findAfter(1L, page));
+        queries.put("QuestionChangeRepository.findLastSeqBefore", () -> changeRepository.findLastSeqBefore(now));
+        return queries;
+    }
+
+    private List<String> verify() {
+        List<String> violations = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"H2".equalsIgnoreCase(product)) {
+                log.warn("执行计划检查只支持 H2，当前数据库为 {}，已跳过", product);
+                return violations;
+            }
+            if (analyze) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                }
+            }
+
+            Map<String, List<String>> captured = captureStatements();
+            int checked = 0;
+            for (Map.Entry<String, List<String>> entry : captured.entrySet()) {
+                for (String sql : entry.getValue()) {
+                    String plan = explain(connection, sql);
+                    Set<String> scanned = new LinkedHashSet<>();
+                    Matcher matcher = TABLE_SCAN.matcher(plan);
+                    while (matcher.find()) {
+                        scanned.add(matcher.group(1));
+                    }
+                    if (scanned.isEmpty()) {
+                        log.debug("{} 执行计划:{}{}", entry.getKey(), System.lineSeparator(), plan);
+                    } else {
+                        violations.add(entry.getKey() + " 扫描 " + scanned + System.lineSeparator() + plan);
+                    }
+                    checked++;
+                }
+            }
+            log.info("执行计划检查完成: {} 个查询, {} 条语句, {} 条全表扫描", captured.size(), checked, violations.size());
+        } catch (SQLException e) {
+            throw new IllegalStateException("执行计划检查失败", e);
+        }
+        return violations;
+    }
+
+    /**
+     * 在只读事务中执行每个查询，记录其间 Hibernate 准备的所有语句
+     */
+    private Map<String, List<String>> captureStatements() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        Map<String, List<String>> captured = new LinkedHashMap<>();
+        hotQueries().forEach((name, query) -> {
+            SqlStatementContext.Recording recording = SqlStatementContext.beginCapture();
+            try {
+                transaction.executeWithoutResult(status -> query.run());
+            } finally {
+                SqlStatementContext.end(recording);
+            }
+            captured.put(name, recording.getStatements());
+        });
+        return captured;
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData meta = statement.getParameterMetaData();
+            for (int i = 1; i <= meta.getParameterCount(); i++) {
+                statement.setObject(i, sampleValue(meta.getParameterType(i)));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // 按参数类型取一个示例值，只要能让 H2 生成计划即可
+    private static Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+                return "plan-check";
+            case Types.DATE:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return Timestamp.valueOf(LocalDateTime.now());
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return Boolean.FALSE;
+            default:
+                return 1L;
+        }
+    }
+}
\ No newline at end of file
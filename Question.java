@@ -10,8 +10,10 @@ import java.util.List;
 @Entity
 @Table(name = "questions")
 public class Question {
+    // 序列 + pooled 分配（一次取 50 个ID），Hibernate 才能对 INSERT 做 JDBC 批处理
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -21,9 +23,33 @@ public class Question {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // 写入时由 MarkdownService 渲染好的 HTML，为空表示尚未渲染（如批量导入的数据），由 MarkdownRerenderJob 补齐
+    @Lob
+    @Column(name = "content_html", columnDefinition = "TEXT")
+    private String contentHtml;
+
+    // 渲染 contentHtml 时的 MarkdownRenderer.VERSION，低于当前版本的行会被后台任务重新渲染
+    @Column(name = "render_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int renderVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // 冗余的回复数，与回复的新增/删除在同一事务中更新，QuestionStatsReconciler 定期校正
+    @Column(name = "reply_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int replyCount;
+
+    // 最后活跃时间（发布或最近一次回复）
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    // 详情页内容版本：回复新增/删除时与计数在同一条 UPDATE 中递增，用于 ETag
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -34,6 +60,14 @@ public class Question {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (lastActivityAt == null) {
+            lastActivityAt = createdAt;
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+// src/main/java/com/demo/model/QuestionChange.java
+package com.demo.model;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 问题变更日志，id 即变更序号（单调递增），供 /api/questions/changes 增量同步
+ * 与问题/回复的写操作在同一事务中插入；删除的问题只留下 QUESTION_DELETED 记录（墓碑）
+ */
+@Data
+@Entity
+@Table(name = "question_changes")
+public class QuestionChange {
+
+    public enum Type {
+        QUESTION_CREATED,
+        QUESTION_DELETED,
+        REPLY_ADDED,
+        REPLY_DELETED,
+        RESET // 批量变更（导入）后客户端需要整体重新加载
+    }
+
+    // 变更序号每次从序列取一个：多实例时 pooled 分配会让持有旧号段的实例在客户端游标越过之后
+    // 才提交小序号，超出 settle 窗口后这些变更会被永久跳过
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_change_seq")
+    @SequenceGenerator(name = "question_change_seq", sequenceName = "question_change_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "question_id")
+    private Long questionId; // RESET 时为空
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public static QuestionChange of(Long questionId, Type type) {
+        QuestionChange change = new QuestionChange();
+        change.setQuestionId(questionId);
+        change.setType(type);
+        change.setChangedAt(LocalDateTime.now());
+        return change;
+    }
+}
\ No newline at end of file
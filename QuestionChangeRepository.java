@@ -0,0 +1,33 @@
+// src/main/java/com/demo/repository/QuestionChangeRepository.java
+package com.demo.repository;
+
+import com.demo.model.QuestionChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuestionChangeRepository extends JpaRepository<QuestionChange, Long> {
+
+    // 序号大于 since 的变更，按序号正序
+    @Query("SELECT c FROM QuestionChange c WHERE c.id > :since ORDER BY c.id ASC")
+    List<QuestionChange> findAfter(@Param("since") Long since, Pageable pageable);
+
+    // 一次取出保留范围内的最小和最大序号：[0] 最小，[1] 最大，表为空时均为 null
+    @Query("SELECT MIN(c.id), MAX(c.id) FROM QuestionChange c")
+    List<Object[]> findSeqRange();
+
+    // cutoff 之前的最后一个序号，清理时保留这一条作为边界
+    @Query("SELECT MAX(c.id) FROM QuestionChange c WHERE c.changedAt < :cutoff")
+    Long findLastSeqBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM QuestionChange c WHERE c.id < :seq")
+    int deleteBefore(@Param("seq") Long seq);
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+// src/main/java/com/demo/service/QuestionChangeService.java
+package com.demo.service;
+
+import com.demo.dto.ChangeFeed;
+import com.demo.dto.QuestionChangeView;
+import com.demo.dto.QuestionSummary;
+import com.demo.model.QuestionChange;
+import com.demo.repository.QuestionChangeRepository;
+import com.demo.repository.QuestionRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 问题变更日志：写操作中记录，/api/questions/changes 按序号增量读取
+ * 序号在插入时分配、提交顺序可能不同，最近 settle 时间内的变更不推进游标，下次请求会再返回一次，
+ * 避免晚提交的小序号变更被跳过；返回的是问题当前状态，重复返回不影响结果
+ */
+@Service
+@Slf4j
+public class QuestionChangeService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final QuestionChangeRepository changeRepository;
+    private final QuestionRepository questionRepository;
+    private final long settleMillis;
+    private final int retentionDays;
+
+    public QuestionChangeService(QuestionChangeRepository changeRepository,
+                                 QuestionRepository questionRepository,
+                                 @Value("${question.changes.settle-ms:2000}") long settleMillis,
+                                 @Value("${question.changes.retention-days:7}") int retentionDays) {
+        this.changeRepository = changeRepository;
+        this.questionRepository = questionRepository;
+        this.settleMillis = Math.max(0, settleMillis);
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    /**
+     * 记录一次变更，需在对应写操作的同一事务中调用
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long questionId, QuestionChange.Type type) {
+        changeRepository.save(QuestionChange.of(questionId, type));
+    }
+
+    /**
+     * 批量导入等绕过 QuestionService 的变更，通知客户端整体重新加载
+     */
+    @Transactional
+    public void recordReset() {
+        changeRepository.save(QuestionChange.of(null, QuestionChange.Type.RESET));
+    }
+
+    /**
+     * since 为空时只返回当前游标（客户端首次加载数据后从这里开始同步）
+     * since 早于已清理的日志，或超过当前最大序号（数据库被重建、序号回退）时返回 reset
+     */
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public ChangeFeed getChanges(Long since, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<Object[]> range = changeRepository.findSeqRange();
+        Long minSeq = range.isEmpty() ? null : (Long) range.get(0)[0];
+        Long maxSeq = range.isEmpty() ? null : (Long) range.get(0)[1];
+        long head = maxSeq != null ? maxSeq : 0L;
+
+        if (since == null || since < 0) {
+            return new ChangeFeed(Collections.emptyList(), head, false, false);
+        }
+        if ((minSeq != null && since < minSeq - 1) || since > head) {
+            return new ChangeFeed(Collections.emptyList(), head, false, true);
+        }
+
+        List<QuestionChange> rows = changeRepository.findAfter(since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        long cursor = since;
+        Map<Long, QuestionChange> latest = new LinkedHashMap<>();
+        Map<Long, Boolean> created = new HashMap<>();
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleMillis, ChronoUnit.MILLIS);
+        Long firstUnsettled = null;
+        for (int i = 0; i < rows.size(); i++) {
+            QuestionChange change = rows.get(i);
+            // 本批中有 RESET 时，之前的变更都没有意义，客户端重新加载后从 RESET 之后继续
+            if (change.getType() == QuestionChange.Type.RESET) {
+                return new ChangeFeed(Collections.emptyList(), change.getId(), hasMore || i < rows.size() - 1, true);
+            }
+            latest.remove(change.getQuestionId()); // 保持按最后变更的序号排列
+            latest.put(change.getQuestionId(), change);
+            if (change.getType() == QuestionChange.Type.QUESTION_CREATED) {
+                created.put(change.getQuestionId(), true);
+            }
+            if (firstUnsettled == null && change.getChangedAt().isAfter(settledBefore)) {
+                firstUnsettled = change.getId();
+            }
+            cursor = change.getId();
+        }
+        if (firstUnsettled != null) {
+            cursor = firstUnsettled - 1;
+            hasMore = false;
+        }
+
+        Map<Long, QuestionSummary> summaries = new HashMap<>();
+        if (!latest.isEmpty()) {
+            for (QuestionSummary summary : questionRepository.findSummariesByIds(latest.keySet())) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+
+        List<QuestionChangeView> changes = new ArrayList<>(latest.size());
+        for (QuestionChange change : latest.values()) {
+            QuestionSummary summary = summaries.get(change.getQuestionId());
+            // 以问题当前状态为准：查不到即已删除
+            changes.add(new QuestionChangeView(change.getId(), change.getQuestionId(), summary == null,
+                    created.containsKey(change.getQuestionId()), summary));
+        }
+        return new ChangeFeed(changes, cursor, hasMore, false);
+    }
+
+    /**
+     * 清理超过保留期的变更，保留边界上的一条，since 早于它的客户端会收到 reset
+     */
+    @Scheduled(cron = "${question.changes.prune-cron:0 45 3 * * *}")
+    @Transactional
+    public void prune() {
+        Long boundary = changeRepository.findLastSeqBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (boundary == null) {
+            return;
+        }
+        int deleted = changeRepository.deleteBefore(boundary);
+        if (deleted > 0) {
+            log.info("已清理 {} 条过期的问题变更记录", deleted);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+// src/main/java/com/demo/dto/QuestionChangeView.java
+package com.demo.dto;
+
+import lombok.Data;
+
+/**
+ * 增量同步中一个问题的最新状态：同一问题在本批内的多次变更合并为一条
+ * deleted 为 true 时是墓碑，summary 为空；created 表示本批内包含该问题的发布
+ */
+@Data
+public class QuestionChangeView {
+    private final long seq;
+    private final Long questionId;
+    private final boolean deleted;
+    private final boolean created;
+    private final QuestionSummary summary;
+}
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.demo.controller;
 
-import com.demo.model.User;
+import com.demo.security.UserPrincipal;
 import com.demo.service.QuestionService;
-import com.demo.service.UserService;
+import com.demo.service.ReplyEventHub;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -15,25 +17,31 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class QuestionController {
 
     private final QuestionService questionService;
-    private final UserService userService;
+    private final ReplyEventHub replyEventHub;
 
     @GetMapping("/ask")
     public String askPage() {
         return "question/ask";
     }
 
+    /**
+     * 详情页订阅新回复/删除回复事件（Server-Sent Events）
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter events(@PathVariable Long id) {
+        return replyEventHub.subscribe(id);
+    }
+
     @PostMapping("/ask")
     public String askQuestion(
             @RequestParam String title,
             @RequestParam String content,
-            Authentication authentication,
+            @AuthenticationPrincipal UserPrincipal principal,
             RedirectAttributes redirectAttributes) {
 
         try {
-            String username = authentication.getName();
-            User user = userService.getUserByUsername(username);
-
-            questionService.createQuestion(title, content, user);
+            questionService.createQuestion(title, content, principal);
 
             redirectAttributes.addFlashAttribute("success", "问题发布成功！");
             return "redirect:/questions";
@@ -47,14 +55,11 @@ public class QuestionController {
     @PostMapping("/{id}/delete")
     public String deleteQuestion(
             @PathVariable Long id,
-            Authentication authentication,
+            @AuthenticationPrincipal UserPrincipal principal,
             RedirectAttributes redirectAttributes) {
 
         try {
-            String username = authentication.getName();
-            User user = userService.getUserByUsername(username);
-
-            questionService.deleteQuestion(id, user);
+            questionService.deleteQuestion(id, principal);
 
             redirectAttributes.addFlashAttribute("success", "问题删除成功！");
             return "redirect:/questions";
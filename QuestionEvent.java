@@ -0,0 +1,39 @@
+// src/main/java/com/demo/event/QuestionEvent.java
+package com.demo.event;
+
+import lombok.Data;
+
+/**
+ * 问题/回复变更事件，由 QuestionService 和 ReplyService 在写操作中发布
+ * 监听方使用 @TransactionalEventListener，在事务提交后才会收到
+ */
+@Data
+public class QuestionEvent {
+
+    public enum Type {
+        QUESTION_CREATED,
+        QUESTION_DELETED,
+        REPLY_ADDED,
+        REPLY_DELETED
+    }
+
+    private final Type type;
+    private final Long questionId;
+    private final Long replyId; // 仅回复事件有值
+
+    public static QuestionEvent questionCreated(Long questionId) {
+        return new QuestionEvent(Type.QUESTION_CREATED, questionId, null);
+    }
+
+    public static QuestionEvent questionDeleted(Long questionId) {
+        return new QuestionEvent(Type.QUESTION_DELETED, questionId, null);
+    }
+
+    public static QuestionEvent replyAdded(Long questionId, Long replyId) {
+        return new QuestionEvent(Type.REPLY_ADDED, questionId, replyId);
+    }
+
+    public static QuestionEvent replyDeleted(Long questionId, Long replyId) {
+        return new QuestionEvent(Type.REPLY_DELETED, questionId, replyId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+// src/main/java/com/demo/dto/QuestionExport.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * /api/questions 流式输出的投影：只取内容前缀作为摘要，不加载完整 content 和实体关联
+ */
+@Data
+public class QuestionExport {
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+    private final String authorName;
+    private final LocalDateTime createdAt;
+    private final int replyCount;
+
+    // JPQL 构造表达式使用，计数列的类型随查询不同，统一按 Number 接收
+    public QuestionExport(Long id, String title, String excerpt, String authorName,
+                          LocalDateTime createdAt, Number replyCount) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorName = authorName;
+        this.createdAt = createdAt;
+        this.replyCount = replyCount != null ? replyCount.intValue() : 0;
+    }
+}
\ No newline at end of file
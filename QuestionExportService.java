@@ -0,0 +1,168 @@
+// src/main/java/com/demo/service/QuestionExportService.java
+package com.demo.service;
+
+import com.demo.dto.QuestionExport;
+import com.demo.repository.QuestionRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * 全量问题列表的流式 JSON 输出
+ * 数据库游标逐行读取投影、JsonGenerator 逐行写出，内存占用与行数无关；
+ * 导出期间一直占用一个数据库连接，同时进行的导出数受 api.export.max-concurrent 限制
+ */
+@Service
+@Slf4j
+public class QuestionExportService {
+
+    /**
+     * 可选输出字段，name 为 JSON 字段名
+     */
+    public enum Field {
+        ID("id"), TITLE("title"), EXCERPT("excerpt"), AUTHOR("authorName"),
+        CREATED_AT("createdAt"), REPLY_COUNT("replyCount");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
+
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore permits;
+
+    public QuestionExportService(QuestionRepository questionRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${api.export.max-concurrent:2}") int maxConcurrent) {
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * 解析 fields 参数（逗号分隔的 JSON 字段名），为空时返回全部字段，未知字段返回 400
+     */
+    public Set<Field> parseFields(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return EnumSet.allOf(Field.class);
+        }
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Field field = null;
+            for (Field candidate : Field.values()) {
+                if (candidate.jsonName.toLowerCase(Locale.ROOT).equals(trimmed.toLowerCase(Locale.ROOT))) {
+                    field = candidate;
+                    break;
+                }
+            }
+            if (field == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "未知字段: " + trimmed);
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? EnumSet.allOf(Field.class) : selected;
+    }
+
+    /**
+     * 占用一个导出名额，已满时抛出 503；成功后必须调用 release
+     */
+    public void acquire() {
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "导出任务过多，请稍后重试");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 以 JSON 数组写出全部问题（按发布时间倒序），返回写出的行数；不负责关闭 out
+     */
+    public long writeTo(OutputStream out, Set<Field> fields) throws IOException {
+        long start = System.currentTimeMillis();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Long rows = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<QuestionExport> stream = questionRepository.streamExports()) {
+                    for (QuestionExport row : (Iterable<QuestionExport>) stream::iterator) {
+                        writeRow(generator, row, fields);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            generator.writeEndArray();
+            log.debug("问题导出完成: {} 行, 耗时 {}ms", rows, System.currentTimeMillis() - start);
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // 客户端断开等写出失败
+        }
+    }
+
+    private static void writeRow(JsonGenerator generator, QuestionExport row, Set<Field> fields) throws IOException {
+        generator.writeStartObject();
+        for (Field field : fields) {
+            generator.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID:
+                    generator.writeNumber(row.getId());
+                    break;
+                case TITLE:
+                    generator.writeString(row.getTitle());
+                    break;
+                case EXCERPT:
+                    generator.writeString(row.getExcerpt());
+                    break;
+                case AUTHOR:
+                    generator.writeString(row.getAuthorName());
+                    break;
+                case CREATED_AT:
+                    generator.writeObject(row.getCreatedAt()); // 与其他接口一致，交给 ObjectMapper 的日期序列化
+                    break;
+                case REPLY_COUNT:
+                    generator.writeNumber(row.getReplyCount());
+                    break;
+                default:
+                    generator.writeNull();
+                    break;
+            }
+        }
+        generator.writeEndObject();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+// src/main/java/com/demo/service/QuestionListVersion.java
+package com.demo.service;
+
+import com.demo.config.ReadWriteRoutingDataSource;
+import com.demo.event.QuestionEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 问题列表的内容版本：任何问题或回复的变化都会递增，列表页的 ETag 由它生成，不需要查询数据库
+ * 进程重启后以启动时间区分，旧 ETag 自然失效；详情页的 ETag 也带上同一个启动标识
+ */
+@Component
+public class QuestionListVersion {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = startedAt;
+
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+
+    public QuestionListVersion(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @TransactionalEventListener
+    public void onQuestionEvent(QuestionEvent event) {
+        bump();
+    }
+
+    /**
+     * 不经过 QuestionEvent 的批量变更（导入、统计校正）需要手动调用
+     */
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public String current() {
+        return instanceId() + "-" + version.get();
+    }
+
+    /**
+     * 启动标识：每次部署/重启都不同，计入 ETag 后新版本的模板和静态资源不会被旧缓存挡住
+     */
+    public String instanceId() {
+        return Long.toString(startedAt, 36);
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * 版本号在主库提交时递增，读库有复制延迟：当前请求的读取会路由到读库时返回 false，
+     * 此时不能用版本号签发 ETag，否则新 ETag 会配上读库中的旧内容，之后的重新验证一直返回 304
+     */
+    public boolean coversCurrentReads() {
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        return routing == null || !routing.routesReadsToReplica();
+    }
+}
\ No newline at end of file
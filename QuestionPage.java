@@ -0,0 +1,25 @@
+// src/main/java/com/demo/dto/QuestionPage.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 缓存的问题详情页主体
+ * 已渲染的 HTML 按“操作位置”切分成若干片段，删除按钮等与当前用户相关的部分由 detail.html 按请求渲染
+ */
+@Data
+public class QuestionPage {
+    private final Long questionId;
+    private final String title;
+    private final long version; // 渲染时问题的内容版本
+    private final List<Segment> segments;
+
+    @Data
+    public static class Segment {
+        private final String html;    // 已渲染、可直接输出的 HTML
+        private final String owner;   // 片段后操作按钮所属用户，null 表示没有操作按钮
+        private final Long replyId;   // 回复的操作按钮时有值，问题的操作按钮为 null
+    }
+}
\ No newline at end of file
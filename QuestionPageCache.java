@@ -0,0 +1,201 @@
+// src/main/java/com/demo/service/QuestionPageCache.java
+package com.demo.service;
+
+import com.demo.dto.CursorPage;
+import com.demo.dto.QuestionPage;
+import com.demo.dto.ReplyView;
+import com.demo.event.QuestionEvent;
+import com.demo.model.Question;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 问题详情页主体的渲染结果缓存
+ * 按容量（LRU）和 TTL 淘汰，新增/删除回复、删除问题时精确失效
+ */
+@Service
+@Slf4j
+public class QuestionPageCache {
+
+    private static final Pattern SLOT = Pattern.compile(Pattern.quote("<qa-slot></qa-slot>"));
+
+    private final QuestionService questionService;
+    private final ReplyService replyService;
+    private final ITemplateEngine templateEngine;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<Long, CachedPage> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // 每次失效递增，渲染期间发生过失效的结果不写入缓存，避免把旧内容放回去
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    public QuestionPageCache(QuestionService questionService,
+                             ReplyService replyService,
+                             ITemplateEngine templateEngine,
+                             @Value("${question.page-cache.max-size:500}") int maxSize,
+                             @Value("${question.page-cache.ttl:600}") long ttlSeconds) {
+        this.questionService = questionService;
+        this.replyService = replyService;
+        this.templateEngine = templateEngine;
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.cache = new LinkedHashMap<Long, CachedPage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPage> eldest) {
+                boolean evict = size() > QuestionPageCache.this.maxSize;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public QuestionPage getPage(Long questionId) {
+        return getPage(questionId, 0L);
+    }
+
+    /**
+     * minVersion 为条件 GET 时查到的版本，缓存中的页面比它旧（失效事件还没到达）时重新渲染，
+     * 避免新 ETag 对应旧内容
+     */
+    public QuestionPage getPage(Long questionId, long minVersion) {
+        long now = System.currentTimeMillis();
+        QuestionPage cachedPage = getIfCached(questionId, minVersion, now);
+        if (cachedPage != null) {
+            return cachedPage;
+        }
+
+        misses.incrementAndGet();
+        long epoch = invalidationEpoch.get();
+        QuestionPage page = render(questionId);
+
+        if (maxSize > 0) {
+            synchronized (cache) {
+                if (epoch == invalidationEpoch.get()) {
+                    cache.put(questionId, new CachedPage(page, now));
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 只查缓存，未命中或已过期时返回 null，不会渲染
+     */
+    public QuestionPage getIfCached(Long questionId, long minVersion) {
+        return getIfCached(questionId, minVersion, System.currentTimeMillis());
+    }
+
+    private QuestionPage getIfCached(Long questionId, long minVersion, long now) {
+        synchronized (cache) {
+            CachedPage cached = cache.get(questionId);
+            if (cached != null && now - cached.loadedAt < ttlMillis && cached.page.getVersion() >= minVersion) {
+                hits.incrementAndGet();
+                return cached.page;
+            }
+        }
+        return null;
+    }
+
+    public void invalidate(Long questionId) {
+        synchronized (cache) {
+            invalidationEpoch.incrementAndGet();
+            cache.remove(questionId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            invalidationEpoch.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onQuestionEvent(QuestionEvent event) {
+        if (event.getType() != QuestionEvent.Type.QUESTION_CREATED) {
+            invalidate(event.getQuestionId());
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (cache) {
+            metrics.put("size", cache.size());
+        }
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("evictions", evictions.get());
+        return metrics;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private QuestionPage render(Long questionId) {
+        Question question = questionService.getQuestionWithUser(questionId);
+        // 只渲染第一页回复，后续页由前端通过 /api/questions/{id}/replies 滚动加载
+        CursorPage<ReplyView> firstPage = replyService.getReplyPage(questionId, null);
+        List<ReplyView> replies = firstPage.getItems();
+
+        Context context = new Context(Locale.SIMPLIFIED_CHINESE);
+        context.setVariable("question", question);
+        context.setVariable("replies", replies);
+        context.setVariable("replyCount", question.getReplyCount());
+        context.setVariable("nextCursor", firstPage.getNextCursor());
+        String html = templateEngine.process("question/detail-body", context);
+
+        // 第一个操作位置属于问题，之后依次属于每条回复
+        String[] parts = SLOT.split(html, -1);
+        if (parts.length != replies.size() + 2) {
+            throw new IllegalStateException("详情页模板操作位置数量不匹配: " + parts.length);
+        }
+        List<QuestionPage.Segment> segments = new ArrayList<>(parts.length);
+        segments.add(new QuestionPage.Segment(parts[0], question.getUser().getUsername(), null));
+        for (int i = 0; i < replies.size(); i++) {
+            ReplyView reply = replies.get(i);
+            segments.add(new QuestionPage.Segment(parts[i + 1], reply.getAuthorName(), reply.getId()));
+        }
+        segments.add(new QuestionPage.Segment(parts[parts.length - 1], null, null));
+
+        return new QuestionPage(question.getId(), question.getTitle(), question.getVersion(), segments);
+    }
+
+    private static class CachedPage {
+        private final QuestionPage page;
+        private final long loadedAt;
+
+        CachedPage(QuestionPage page, long loadedAt) {
+            this.page = page;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
\ No newline at end of file
@@ -1,15 +1,168 @@
 package com.demo.repository;
 
+import com.demo.dto.QuestionExport;
+import com.demo.dto.QuestionSummary;
+import com.demo.dto.QuestionVersion;
+import com.demo.dto.RenderSource;
+import com.demo.dto.SearchDocument;
 import com.demo.model.Question;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findAllByOrderByCreatedAtDesc();
 
-    @Query("SELECT q FROM Question q JOIN FETCH q.user ORDER BY q.createdAt DESC")
-    List<Question> findAllWithUser();
+    @Query("SELECT q FROM Question q JOIN FETCH q.user WHERE q.id = :id")
+    Optional<Question> findWithUserById(@Param("id") Long id);
+
+    // 列表第一页（按创建时间倒序）
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u " +
+            "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QuestionSummary> findLatestSummaries(Pageable pageable);
+
+    // 增量同步：按ID取当前摘要，已删除的问题不会出现在结果中
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u WHERE q.id IN :ids")
+    List<QuestionSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // 游标之后的下一页：(createdAt, id) 严格小于游标；前面的 createdAt <= 条件让索引可以直接定位到游标位置
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u " +
+            "WHERE q.createdAt <= :createdAt " +
+            "AND (q.createdAt < :createdAt OR (q.createdAt = :createdAt AND q.id < :id)) " +
+            "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QuestionSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    // 按最后活跃时间排序的第一页
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u " +
+            "ORDER BY q.lastActivityAt DESC, q.id DESC")
+    List<QuestionSummary> findMostActiveSummaries(Pageable pageable);
+
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u " +
+            "WHERE q.lastActivityAt <= :lastActivityAt " +
+            "AND (q.lastActivityAt < :lastActivityAt OR (q.lastActivityAt = :lastActivityAt AND q.id < :id)) " +
+            "ORDER BY q.lastActivityAt DESC, q.id DESC")
+    List<QuestionSummary> findActiveSummariesBefore(@Param("lastActivityAt") LocalDateTime lastActivityAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    // 某个用户的提问（个人资料页），按创建时间倒序
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u WHERE u.id = :userId " +
+            "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QuestionSummary> findSummariesByUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.demo.dto.QuestionSummary(q.id, q.title, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u WHERE u.id = :userId " +
+            "AND q.createdAt <= :createdAt " +
+            "AND (q.createdAt < :createdAt OR (q.createdAt = :createdAt AND q.id < :id)) " +
+            "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QuestionSummary> findSummariesByUserBefore(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    // 新增回复：回复数 +1，刷新最后活跃时间和内容版本
+    @Modifying
+    @Query("UPDATE Question q SET q.replyCount = q.replyCount + 1, q.lastActivityAt = :at, " +
+            "q.version = q.version + 1, q.updatedAt = :at WHERE q.id = :id")
+    int incrementReplyCount(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    // 删除回复：回复数 -1，递增内容版本
+    @Modifying
+    @Query("UPDATE Question q SET q.replyCount = CASE WHEN q.replyCount > 0 THEN q.replyCount - 1 ELSE 0 END, " +
+            "q.version = q.version + 1, q.updatedAt = :at WHERE q.id = :id")
+    int decrementReplyCount(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    // 条件 GET 使用：按主键只读版本号和修改时间
+    @Query("SELECT new com.demo.dto.QuestionVersion(q.version, COALESCE(q.updatedAt, q.createdAt)) " +
+            "FROM Question q WHERE q.id = :id")
+    Optional<QuestionVersion> findVersionById(@Param("id") Long id);
+
+    // 校正与实际回复数不一致的计数
+    @Modifying
+    @Query(value = "UPDATE questions q SET reply_count = " +
+            "(SELECT COUNT(*) FROM replies r WHERE r.question_id = q.id), " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE q.reply_count <> (SELECT COUNT(*) FROM replies r WHERE r.question_id = q.id)",
+            nativeQuery = true)
+    int reconcileReplyCounts();
+
+    // 校正与最新回复时间不一致的最后活跃时间（含升级前为空的历史数据）
+    @Modifying
+    @Query(value = "UPDATE questions q SET last_activity_at = " +
+            "COALESCE((SELECT MAX(r.created_at) FROM replies r WHERE r.question_id = q.id), q.created_at), " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE q.last_activity_at IS NULL OR q.last_activity_at <> " +
+            "COALESCE((SELECT MAX(r.created_at) FROM replies r WHERE r.question_id = q.id), q.created_at)",
+            nativeQuery = true)
+    int reconcileLastActivity();
+
+    // 批量导入后刷新最后活跃时间：只处理有新导入回复（ID >= fromReplyId）的问题
+    @Modifying
+    @Query(value = "UPDATE questions q SET last_activity_at = " +
+            "(SELECT MAX(r.created_at) FROM replies r WHERE r.question_id = q.id), " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE EXISTS (SELECT 1 FROM replies r WHERE r.question_id = q.id AND r.id >= :fromReplyId " +
+            "AND (q.last_activity_at IS NULL OR r.created_at > q.last_activity_at))",
+            nativeQuery = true)
+    int refreshLastActivitySince(@Param("fromReplyId") Long fromReplyId);
+
+    // 搜索索引重建：按 ID 分批读取
+    @Query("SELECT new com.demo.dto.SearchDocument(q.id, q.title, q.content, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u WHERE q.id > :afterId ORDER BY q.id ASC")
+    List<SearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.demo.dto.SearchDocument(q.id, q.title, q.content, u.username, q.createdAt, q.lastActivityAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u WHERE q.id = :id")
+    Optional<SearchDocument> findSearchDocument(@Param("id") Long id);
+
+    // /api/questions 流式导出：游标逐批读取（fetch size），摘要在数据库中截取，需在只读事务内消费并关闭
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.demo.dto.QuestionExport(q.id, q.title, SUBSTRING(q.content, 1, 200), u.username, " +
+            "q.createdAt, q.replyCount) " +
+            "FROM Question q JOIN q.user u ORDER BY q.createdAt DESC, q.id DESC")
+    Stream<QuestionExport> streamExports();
+
+    // 渲染版本落后的问题，按ID分批
+    @Query("SELECT new com.demo.dto.RenderSource(q.id, q.id, q.content) FROM Question q " +
+            "WHERE q.renderVersion < :version AND q.id > :afterId ORDER BY q.id ASC")
+    List<RenderSource> findStaleRenderSources(@Param("version") int version,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // 写入重新渲染的 HTML，同时递增内容版本使详情页 ETag 失效
+    @Modifying
+    @Query("UPDATE Question q SET q.contentHtml = :html, q.renderVersion = :version, " +
+            "q.version = q.version + 1, q.updatedAt = :at WHERE q.id = :id AND q.renderVersion < :version")
+    int updateRendered(@Param("id") Long id, @Param("html") String html,
+                       @Param("version") int version, @Param("at") LocalDateTime at);
+
+    // 回复重新渲染后递增所属问题的内容版本
+    @Modifying
+    @Query("UPDATE Question q SET q.version = q.version + 1, q.updatedAt = :at WHERE q.id IN :ids")
+    int bumpVersions(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
 }
\ No newline at end of file
@@ -1,52 +1,153 @@
 package com.demo.service;
 
+import com.demo.dto.CursorPage;
+import com.demo.dto.QuestionSummary;
+import com.demo.dto.QuestionVersion;
+import com.demo.event.QuestionEvent;
 import com.demo.model.Question;
-import com.demo.model.User;
+import com.demo.model.QuestionChange;
 import com.demo.repository.QuestionRepository;
+import com.demo.security.UserPrincipal;
+import com.demo.util.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class QuestionService {
 
     private final QuestionRepository questionRepository;
+    private final UserService userService;
+    private final MarkdownService markdownService;
+    private final QuestionChangeService questionChangeService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<Question> getAllQuestions() {
-        return questionRepository.findAllWithUser();
+    @Value("${question.page-size:20}")
+    private int pageSize;
+
+    /**
+     * 问题列表分页（keyset），每页只查询 pageSize + 1 条摘要用于判断是否还有下一页
+     */
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public CursorPage<QuestionSummary> getQuestionFeed(String cursor) {
+        return getQuestionFeed(cursor, false);
+    }
+
+    /**
+     * byActivity 为 true 时按最后活跃时间排序，否则按发布时间排序
+     */
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public CursorPage<QuestionSummary> getQuestionFeed(String cursor, boolean byActivity) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<QuestionSummary> rows;
+        if (byActivity) {
+            rows = after == null
+                    ? questionRepository.findMostActiveSummaries(limit)
+                    : questionRepository.findActiveSummariesBefore(after.getTimestamp(), after.getId(), limit);
+        } else {
+            rows = after == null
+                    ? questionRepository.findLatestSummaries(limit)
+                    : questionRepository.findSummariesBefore(after.getTimestamp(), after.getId(), limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<QuestionSummary> items = rows.subList(0, pageSize);
+        QuestionSummary last = items.get(items.size() - 1);
+        LocalDateTime sortKey = byActivity ? last.getLastActivityAt() : last.getCreatedAt();
+        return new CursorPage<>(items, new KeysetCursor(sortKey, last.getId()).encode());
     }
 
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
     public Question getQuestionById(Long id) {
         return questionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("问题不存在"));
     }
 
-    public Question getQuestionWithReplies(Long id) {
-        Question question = getQuestionById(id);
-        // 触发懒加载，获取回复
-        question.getReplies().size();
-        return question;
+    /**
+     * 条件 GET 用的版本号，与详情页内容一样在只读事务中读取，启用读写分离时两者来自同一个库
+     */
+    @Transactional(readOnly = true)
+    public Optional<QuestionVersion> getQuestionVersion(Long id) {
+        return questionRepository.findVersionById(id);
     }
 
+    /**
+     * 返回问题的引用（代理对象），只用于设置外键
+     */
+    public Question getQuestionReference(Long id) {
+        return questionRepository.getById(id);
+    }
+
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public Question getQuestionWithUser(Long id) {
+        return questionRepository.findWithUserById(id)
+                .orElseThrow(() -> new RuntimeException("问题不存在"));
+    }
+
+    @Timed("qa.service")
     @Transactional
-    public Question createQuestion(String title, String content, User user) {
+    public Question createQuestion(String title, String content, UserPrincipal author) {
         Question question = new Question();
         question.setTitle(title);
         question.setContent(content);
-        question.setUser(user);
+        question.setContentHtml(markdownService.render(content));
+        question.setRenderVersion(markdownService.getVersion());
+        question.setUser(userService.getUserReference(author.getId()));
 
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        questionChangeService.record(saved.getId(), QuestionChange.Type.QUESTION_CREATED);
+        eventPublisher.publishEvent(QuestionEvent.questionCreated(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * 新增回复后更新冗余计数并记录变更，需在新增回复的同一事务中调用
+     */
+    @Timed("qa.service")
+    @Transactional
+    public void recordReplyAdded(Long questionId, LocalDateTime at) {
+        if (questionRepository.incrementReplyCount(questionId, at) == 0) {
+            throw new RuntimeException("问题不存在");
+        }
+        questionChangeService.record(questionId, QuestionChange.Type.REPLY_ADDED);
+    }
+
+    /**
+     * 删除回复后更新冗余计数并记录变更，需在删除回复的同一事务中调用
+     */
+    @Timed("qa.service")
+    @Transactional
+    public void recordReplyDeleted(Long questionId) {
+        questionRepository.decrementReplyCount(questionId, LocalDateTime.now());
+        questionChangeService.record(questionId, QuestionChange.Type.REPLY_DELETED);
     }
 
+    @Timed("qa.service")
     @Transactional
-    public void deleteQuestion(Long questionId, User user) {
+    public void deleteQuestion(Long questionId, UserPrincipal principal) {
         Question question = getQuestionById(questionId);
-        if (!question.getUser().getId().equals(user.getId())) {
+        if (!question.getUser().getId().equals(principal.getId())) {
             throw new RuntimeException("无权删除此问题");
         }
         questionRepository.delete(question);
+        questionChangeService.record(questionId, QuestionChange.Type.QUESTION_DELETED);
+        eventPublisher.publishEvent(QuestionEvent.questionDeleted(questionId));
     }
 }
\ No newline at end of file
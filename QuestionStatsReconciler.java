@@ -0,0 +1,38 @@
+// src/main/java/com/demo/service/QuestionStatsReconciler.java
+package com.demo.service;
+
+import com.demo.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 校正 Question 上的冗余统计（回复数、最后活跃时间）
+ * 启动时执行一次，之后按 question.stats.reconcile-cron 定时执行
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionStatsReconciler {
+
+    private final QuestionRepository questionRepository;
+    private final QuestionListVersion questionListVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${question.stats.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        int counts = questionRepository.reconcileReplyCounts();
+        int activity = questionRepository.reconcileLastActivity();
+        if (counts > 0 || activity > 0) {
+            questionListVersion.bump();
+            log.warn("问题统计已校正: 回复数 {} 条, 最后活跃时间 {} 条", counts, activity);
+        } else {
+            log.debug("问题统计一致，无需校正");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+// src/main/java/com/demo/dto/QuestionSummary.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 问题列表的轻量投影（不加载 content 和回复集合）
+ */
+@Data
+public class QuestionSummary {
+    private final Long id;
+    private final String title;
+    private final String authorName;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastActivityAt;
+    private final int replyCount;
+
+    // JPQL 构造表达式使用，计数列的类型随查询不同，统一按 Number 接收
+    public QuestionSummary(Long id, String title, String authorName, LocalDateTime createdAt,
+                           LocalDateTime lastActivityAt, Number replyCount) {
+        this.id = id;
+        this.title = title;
+        this.authorName = authorName;
+        this.createdAt = createdAt;
+        this.lastActivityAt = lastActivityAt;
+        this.replyCount = replyCount != null ? replyCount.intValue() : 0;
+    }
+}
\ No newline at end of file
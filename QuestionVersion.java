@@ -0,0 +1,20 @@
+// src/main/java/com/demo/dto/QuestionVersion.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 问题详情页的内容版本，只用于条件 GET，不加载标题和内容
+ */
+@Data
+public class QuestionVersion {
+    private final long version;
+    private final LocalDateTime updatedAt;
+
+    public QuestionVersion(Number version, LocalDateTime updatedAt) {
+        this.version = version != null ? version.longValue() : 0L;
+        this.updatedAt = updatedAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+// src/main/java/com/demo/service/ReadExecutor.java
+package com.demo.service;
+
+import com.demo.config.ReplicaRoutingContext;
+import com.demo.monitor.SqlStatementContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 读请求的异步执行器，并发数与数据库连接池（启用读写分离时为读库连接池）大小一致
+ * 控制器返回 CompletableFuture，Tomcat 线程在等待数据库期间被释放；排队已满时直接返回 503
+ * JDK 21+ 上使用虚拟线程（每个任务一个），并发仍由信号量限制在连接池大小以内
+ */
+@Component
+@Slf4j
+public class ReadExecutor {
+
+    private final int concurrency;
+    private final int maxPending; // 执行中 + 排队中的任务上限
+    private final ExecutorService executor;
+    private final Semaphore permits; // 仅虚拟线程模式使用
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ReadExecutor(@Value("${read.executor.concurrency:${app.datasource.read.hikari.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}}") int concurrency,
+                        @Value("${read.executor.queue-capacity:200}") int queueCapacity,
+                        @Value("${read.executor.virtual-threads:true}") boolean preferVirtualThreads) {
+        this.concurrency = Math.max(1, concurrency);
+        this.maxPending = this.concurrency + Math.max(0, queueCapacity);
+
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.permits = new Semaphore(this.concurrency);
+            log.info("读请求执行器: 虚拟线程, 并发 {}, 排队上限 {}", this.concurrency, queueCapacity);
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(this.concurrency, this.concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    r -> new Thread(r, "read-" + threadIndex.incrementAndGet()),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.permits = null;
+            log.info("读请求执行器: 平台线程 {}, 排队上限 {}", this.concurrency, queueCapacity);
+        }
+    }
+
+    /**
+     * 提交读任务；执行器已满时在调用线程上抛出 503
+     * 当前线程的 SQL 计数上下文会传递到任务中，SqlBudgetFilter 仍能统计到这些语句；
+     * 写后读粘滞的路由状态也一并传递，刚发过帖的用户在任务中同样读主库
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw reject();
+        }
+
+        List<SqlStatementContext.Recording> recordings = SqlStatementContext.currentAll();
+        boolean primaryOnly = ReplicaRoutingContext.isPrimaryOnly();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return runWithPermit(task, recordings, primaryOnly);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            throw reject();
+        }
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T runWithPermit(Supplier<T> task, List<SqlStatementContext.Recording> recordings, boolean primaryOnly) {
+        // 由外到内依次压入，保持与请求线程上相同的嵌套顺序
+        for (int i = recordings.size() - 1; i >= 0; i--) {
+            SqlStatementContext.attach(recordings.get(i));
+        }
+        ReplicaRoutingContext.State previousRoute = ReplicaRoutingContext.enter(primaryOnly);
+        try {
+            if (permits == null) {
+                return task.get();
+            }
+            permits.acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        } finally {
+            ReplicaRoutingContext.exit(previousRoute);
+            for (SqlStatementContext.Recording recording : recordings) {
+                SqlStatementContext.end(recording);
+            }
+        }
+    }
+
+    private ResponseStatusException reject() {
+        rejected.incrementAndGet();
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，低版本 JDK 上返回 null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+// src/main/java/com/demo/config/ReadWriteRoutingDataSource.java
+package com.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 只读事务路由到读库，其余（写事务、无事务）走主库
+ * 必须包在 LazyConnectionDataSourceProxy 里使用：事务开始时只读标记还没设置，要等第一条语句执行时再取连接
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private volatile boolean replicaEnabled = true;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && routesReadsToReplica()) {
+            return Route.REPLICA;
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReplicaRoutingContext.markWritten();
+        }
+        return Route.PRIMARY;
+    }
+
+    /**
+     * 读库不可用（如本地同步数据期间）时临时让所有请求走主库
+     */
+    public void setReplicaEnabled(boolean replicaEnabled) {
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    public boolean isReplicaEnabled() {
+        return replicaEnabled;
+    }
+
+    /**
+     * 当前线程上的只读事务是否会读读库（未被写后读粘滞等固定在主库）
+     */
+    public boolean routesReadsToReplica() {
+        return replicaEnabled && !ReplicaRoutingContext.isPrimaryOnly();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+// src/main/java/com/demo/dto/RenderSource.java
+package com.demo.dto;
+
+import lombok.Data;
+
+/**
+ * 后台重新渲染 Markdown 所需的字段投影
+ * 问题行的 questionId 即自身ID，回复行为所属问题的ID
+ */
+@Data
+public class RenderSource {
+    private final Long id;
+    private final Long questionId;
+    private final String content;
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+// src/main/java/com/demo/config/ReplicaRoutingContext.java
+package com.demo.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的读库路由状态
+ * pinned：刚写过数据的用户在粘滞窗口内，读请求也走主库，避免读不到自己刚提交的内容
+ * written：本次请求里已经有写事务，之后的读（如提交后的事件监听器）同样走主库
+ * 只在 ReplicaStickinessFilter、ReadExecutor 的任务和 runOnPrimary 范围内有状态，其余线程始终按事务的只读标记路由
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * 进入一个路由范围，返回之前的状态，退出时交给 exit 恢复
+     */
+    public static State enter(boolean pinned) {
+        State previous = CURRENT.get();
+        CURRENT.set(new State(pinned || (previous != null && previous.isPrimaryOnly())));
+        return previous;
+    }
+
+    public static void exit(State previous) {
+        State current = CURRENT.get();
+        if (previous != null && current != null && current.written) {
+            previous.written = true; // 内层范围的写入对外层同样生效
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 当前范围内是否必须读主库
+     */
+    public static boolean isPrimaryOnly() {
+        State state = CURRENT.get();
+        return state != null && state.isPrimaryOnly();
+    }
+
+    public static boolean hasWritten() {
+        State state = CURRENT.get();
+        return state != null && state.written;
+    }
+
+    static void markWritten() {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.written = true;
+        }
+    }
+
+    /**
+     * 在主库上执行（批量导入后重建索引等需要立即读到刚写入数据的场景）
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        State previous = enter(true);
+        try {
+            return task.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static void runOnPrimary(Runnable task) {
+        onPrimary(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static final class State {
+        private final boolean pinned;
+        private boolean written;
+
+        private State(boolean pinned) {
+            this.pinned = pinned;
+        }
+
+        private boolean isPrimaryOnly() {
+            return pinned || written;
+        }
+    }
+}
\ No newline at end of file
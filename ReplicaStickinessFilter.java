@@ -0,0 +1,48 @@
+// src/main/java/com/demo/config/ReplicaStickinessFilter.java
+package com.demo.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+/**
+ * 写后读粘滞：请求中提交过写事务后，在会话上记录截止时间，窗口内该用户的读请求都走主库，
+ * 读库的复制延迟不会让刚发布的问题/回复在跳转后的页面上“消失”
+ */
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    static final String STICKY_UNTIL_ATTRIBUTE = ReplicaStickinessFilter.class.getName() + ".STICKY_UNTIL";
+
+    private final long stickyMillis;
+
+    public ReplicaStickinessFilter(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Object stickyUntil = session != null ? session.getAttribute(STICKY_UNTIL_ATTRIBUTE) : null;
+        boolean pinned = stickyUntil instanceof Long && (Long) stickyUntil > System.currentTimeMillis();
+
+        ReplicaRoutingContext.State previous = ReplicaRoutingContext.enter(pinned);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (ReplicaRoutingContext.hasWritten()) {
+                // 登录、注册等写操作可能在请求中换了会话，重新获取
+                HttpSession current = request.getSession(false);
+                if (current != null) {
+                    current.setAttribute(STICKY_UNTIL_ATTRIBUTE, System.currentTimeMillis() + stickyMillis);
+                }
+            }
+            ReplicaRoutingContext.exit(previous);
+        }
+    }
+}
\ No newline at end of file
@@ -8,14 +8,25 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "replies")
 public class Reply {
+    // 序列 + pooled 分配（一次取 50 个ID），Hibernate 才能对 INSERT 做 JDBC 批处理
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reply_seq")
+    @SequenceGenerator(name = "reply_seq", sequenceName = "reply_seq", allocationSize = 50)
     private Long id;
 
     @Lob
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // 写入时由 MarkdownService 渲染好的 HTML，为空表示尚未渲染（如批量导入的数据），由 MarkdownRerenderJob 补齐
+    @Lob
+    @Column(name = "content_html", columnDefinition = "TEXT")
+    private String contentHtml;
+
+    // 渲染 contentHtml 时的 MarkdownRenderer.VERSION，低于当前版本的行会被后台任务重新渲染
+    @Column(name = "render_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int renderVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -29,6 +40,8 @@ public class Reply {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
\ No newline at end of file
@@ -1,10 +1,9 @@
 package com.demo.controller;
 
-import com.demo.model.User;
+import com.demo.security.UserPrincipal;
 import com.demo.service.ReplyService;
-import com.demo.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -15,20 +14,16 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class ReplyController {
 
     private final ReplyService replyService;
-    private final UserService userService;
 
     @PostMapping
     public String addReply(
             @PathVariable Long questionId,
             @RequestParam String content,
-            Authentication authentication,
+            @AuthenticationPrincipal UserPrincipal principal,
             RedirectAttributes redirectAttributes) {
 
         try {
-            String username = authentication.getName();
-            User user = userService.getUserByUsername(username);
-
-            replyService.addReply(questionId, content, user);
+            replyService.addReply(questionId, content, principal);
 
             redirectAttributes.addFlashAttribute("success", "回复成功！");
             return "redirect:/questions/" + questionId;
@@ -43,14 +38,11 @@ public class ReplyController {
     public String deleteReply(
             @PathVariable Long questionId,
             @PathVariable Long replyId,
-            Authentication authentication,
+            @AuthenticationPrincipal UserPrincipal principal,
             RedirectAttributes redirectAttributes) {
 
         try {
-            String username = authentication.getName();
-            User user = userService.getUserByUsername(username);
-
-            replyService.deleteReply(replyId, user);
+            replyService.deleteReply(replyId, principal);
 
             redirectAttributes.addFlashAttribute("success", "回复删除成功！");
             return "redirect:/questions/" + questionId;
@@ -0,0 +1,460 @@
+// src/main/java/com/demo/service/ReplyEventHub.java
+package com.demo.service;
+
+import com.demo.dto.ReplyView;
+import com.demo.event.QuestionEvent;
+import com.demo.repository.QuestionRepository;
+import com.demo.repository.ReplyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 问题详情页的回复推送（Server-Sent Events）
+ * 回复新增/删除提交后，每个事件只查询和序列化一次，再放入各订阅者的有界缓冲区，由发送线程逐个写出；
+ * 缓冲区满时按 sse.overflow-policy 处理，慢连接不会拖慢发布方：
+ * resync 丢弃缓冲的事件，改发一条 resync 事件，客户端收到后重新加载回复区；disconnect 断开连接，客户端重连后同样重新加载
+ * 事件不带 id，丢失的事件不按 Last-Event-ID 补发，一律由客户端重新加载
+ * 写出是阻塞的：单次发送超过 sse.send-timeout-ms 的连接视为卡住并断开，同时为被占住的发送线程补一个线程
+ * （最多 sse.max-stalled-senders 个），卡住的写入在 socket 超时返回后才释放线程，其余连接的推送不受影响
+ */
+@Service
+@Slf4j
+public class ReplyEventHub {
+
+    public enum OverflowPolicy {
+        RESYNC,
+        DISCONNECT
+    }
+
+    // 放入缓冲区表示发完之前的事件后结束连接
+    private static final long RECONNECT_MILLIS = 3000; // 断线后浏览器的重连间隔
+    private static final HubEvent COMPLETE = new HubEvent(null, null, null);
+    private static final HubEvent CONNECTED = new HubEvent(null, null, "connected");
+    private static final HubEvent PING = new HubEvent(null, null, "ping");
+    // 缓冲区溢出后代替被丢弃的事件，客户端收到后重新加载
+    private static final HubEvent RESYNC = new HubEvent("resync", "{}", null);
+
+    private final QuestionRepository questionRepository;
+    private final ReplyRepository replyRepository;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxSubscribers;
+    private final int maxPerQuestion;
+    private final long timeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+    private final ThreadPoolExecutor sender;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+    private final AtomicInteger stalledSenders = new AtomicInteger(); // 卡在写入上、已补充了线程的发送任务
+
+    public ReplyEventHub(QuestionRepository questionRepository,
+                         ReplyRepository replyRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${sse.buffer-size:32}") int bufferSize,
+                         @Value("${sse.overflow-policy:resync}") String overflowPolicy,
+                         @Value("${sse.max-subscribers:5000}") int maxSubscribers,
+                         @Value("${sse.max-per-question:1000}") int maxPerQuestion,
+                         @Value("${sse.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${sse.sender-threads:4}") int senderThreads,
+                         @Value("${sse.send-timeout-ms:5000}") long sendTimeoutMillis,
+                         @Value("${sse.max-stalled-senders:64}") int maxStalledSenders) {
+        this.questionRepository = questionRepository;
+        this.replyRepository = replyRepository;
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+        this.maxPerQuestion = Math.max(1, maxPerQuestion);
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutMillis = Math.max(1, sendTimeoutMillis);
+        this.senderThreads = Math.max(1, senderThreads);
+        this.maxStalledSenders = Math.max(0, maxStalledSenders);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(this.senderThreads, this.senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "sse-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅一个问题的回复事件；问题不存在返回 404，连接数超出上限返回 503
+     */
+    public SseEmitter subscribe(Long questionId) {
+        if (!questionRepository.existsById(questionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "问题不存在");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "实时连接过多，请稍后重试");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(questionId, emitter);
+        // compute 对同一问题是原子的，与 remove 中清理空集合不会交错
+        boolean[] full = new boolean[1];
+        subscribers.compute(questionId, (id, watchers) -> {
+            Set<Subscriber> set = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+            if (set.size() >= maxPerQuestion) {
+                full[0] = true;
+            } else {
+                set.add(subscriber);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (full[0]) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "该问题的实时连接过多");
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // 立即写出一条注释，让响应头尽快发出
+        enqueue(subscriber, CONNECTED);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onQuestionEvent(QuestionEvent event) {
+        Set<Subscriber> watchers = subscribers.get(event.getQuestionId());
+        if (watchers == null || watchers.isEmpty()) {
+            return;
+        }
+        switch (event.getType()) {
+            case REPLY_ADDED:
+                // 提交后只查询一次，所有订阅者共享同一份序列化结果
+                Optional<ReplyView> reply = replyRepository.findViewById(event.getReplyId());
+                reply.ifPresent(view -> publish(watchers, "reply-added", view));
+                break;
+            case REPLY_DELETED:
+                publish(watchers, "reply-deleted", Collections.singletonMap("id", event.getReplyId()));
+                break;
+            case QUESTION_DELETED:
+                publish(watchers, "question-deleted", Collections.singletonMap("id", event.getQuestionId()));
+                for (Subscriber subscriber : watchers) {
+                    enqueue(subscriber, COMPLETE);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 心跳：保持代理/负载均衡上的空闲连接，同时尽早发现已断开的客户端
+     * 缓冲区里还有待发事件的连接跳过
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> watchers : subscribers.values()) {
+            for (Subscriber subscriber : watchers) {
+                synchronized (subscriber) {
+                    if (!subscriber.buffer.isEmpty()) {
+                        continue;
+                    }
+                }
+                enqueue(subscriber, PING);
+            }
+        }
+    }
+
+    /**
+     * 检查卡住的写入：超过 sse.send-timeout-ms 仍未返回的连接断开，不再接收事件，并为占住的线程补一个发送线程
+     * 不在这里关闭 SseEmitter：它的方法与卡住的 send 共用同一把锁
+     */
+    @Scheduled(fixedDelayString = "${sse.send-check-ms:1000}")
+    public void checkStalledSends() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> watchers : subscribers.values()) {
+            for (Subscriber subscriber : watchers) {
+                boolean compensate;
+                synchronized (subscriber) {
+                    if (subscriber.sendStartedAt == 0 || subscriber.stalled
+                            || now - subscriber.sendStartedAt < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) {
+                        continue;
+                    }
+                    subscriber.stalled = true;
+                    compensate = stalledSenders.get() < maxStalledSenders;
+                    if (compensate) {
+                        stalledSenders.incrementAndGet();
+                        subscriber.compensated = true;
+                    }
+                }
+                slowDisconnects.incrementAndGet();
+                log.warn("SSE 连接写入超过 {}ms，已断开 (问题 {})", sendTimeoutMillis, subscriber.questionId);
+                remove(subscriber);
+                if (compensate) {
+                    resizeSender();
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSlowDisconnects() {
+        return slowDisconnects.get();
+    }
+
+    public int getStalledSenders() {
+        return stalledSenders.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> watchers : subscribers.values()) {
+            for (Subscriber subscriber : watchers) {
+                subscriber.emitter.complete();
+            }
+        }
+        sender.shutdownNow();
+    }
+
+    private void publish(Set<Subscriber> watchers, String name, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("SSE 事件序列化失败: {}", name, e);
+            return;
+        }
+        HubEvent event = new HubEvent(name, json, null);
+        published.incrementAndGet();
+        for (Subscriber subscriber : watchers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, HubEvent event) {
+        boolean disconnect = false;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            // 已提交的变化会包含在客户端收到 resync 后重新加载的内容里，resync 发出前不再缓冲数据事件
+            if (subscriber.resyncPending && event.name != null) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (subscriber.buffer.size() >= bufferSize) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    subscriber.closed = true;
+                    subscriber.buffer.clear();
+                    disconnect = true;
+                } else {
+                    // 丢弃已缓冲的事件，改发一条 resync；已排队的结束标记保留在 resync 之后
+                    boolean completing = subscriber.buffer.contains(COMPLETE);
+                    dropped.addAndGet(subscriber.buffer.size());
+                    subscriber.buffer.clear();
+                    subscriber.buffer.addLast(RESYNC);
+                    subscriber.resyncPending = true;
+                    if (completing) {
+                        subscriber.buffer.addLast(COMPLETE);
+                    }
+                    if (event.name != null) {
+                        dropped.incrementAndGet();
+                        event = null;
+                    }
+                }
+            }
+            if (!disconnect) {
+                if (event != null) {
+                    subscriber.buffer.addLast(event);
+                }
+                if (subscriber.draining) {
+                    return;
+                }
+                subscriber.draining = true;
+            }
+        }
+
+        if (disconnect) {
+            slowDisconnects.incrementAndGet();
+            remove(subscriber);
+            subscriber.emitter.complete(); // 客户端按 retry 间隔重连，重连后重新加载回复区
+            return;
+        }
+        sender.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            HubEvent event;
+            synchronized (subscriber) {
+                event = subscriber.buffer.pollFirst();
+                if (event == null || subscriber.closed) {
+                    subscriber.draining = false;
+                    return;
+                }
+                if (event == RESYNC) {
+                    subscriber.resyncPending = false;
+                }
+            }
+            try {
+                if (event == COMPLETE) {
+                    remove(subscriber);
+                    subscriber.emitter.complete();
+                    return;
+                }
+                synchronized (subscriber) {
+                    subscriber.sendStartedAt = System.nanoTime();
+                }
+                boolean stalled;
+                try {
+                    subscriber.emitter.send(event.toBuilder());
+                } finally {
+                    stalled = sendFinished(subscriber);
+                }
+                if (stalled) {
+                    // 写入最终成功了，但连接已被判定为卡住并移除，结束它让客户端重连后重新加载
+                    subscriber.emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开或连接已结束
+                remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    // 卡住的写入返回后，收回为它补充的线程；返回该连接是否已被 checkStalledSends 断开
+    private boolean sendFinished(Subscriber subscriber) {
+        boolean compensated;
+        boolean stalled;
+        synchronized (subscriber) {
+            subscriber.sendStartedAt = 0;
+            compensated = subscriber.compensated;
+            subscriber.compensated = false;
+            stalled = subscriber.stalled;
+        }
+        if (compensated) {
+            stalledSenders.decrementAndGet();
+            resizeSender();
+        }
+        return stalled;
+    }
+
+    /**
+     * 发送线程数 = sse.sender-threads + 卡住的写入数；按计数重新计算，增减的先后顺序不影响结果
+     * 扩大时先调最大值再调核心数，缩小时相反，否则 ThreadPoolExecutor 会拒绝 core > max
+     */
+    private synchronized void resizeSender() {
+        int target = senderThreads + stalledSenders.get();
+        if (target > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(target);
+            sender.setCorePoolSize(target);
+        } else {
+            sender.setCorePoolSize(target);
+            sender.setMaximumPoolSize(target);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.buffer.clear();
+            if (subscriber.removed) {
+                return;
+            }
+            subscriber.closed = true;
+            subscriber.removed = true;
+        }
+        subscribers.computeIfPresent(subscriber.questionId, (id, watchers) -> {
+            watchers.remove(subscriber);
+            return watchers.isEmpty() ? null : watchers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * 已序列化的事件，所有订阅者共享；发送时只拼装 SSE 字段
+     */
+    private static class HubEvent {
+        private final String name; // 数据事件的名称，控制事件（连接、心跳、结束）为 null
+        private final String json;
+        private final String comment;
+
+        HubEvent(String name, String json, String comment) {
+            this.name = name;
+            this.json = json;
+            this.comment = comment;
+        }
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (this == CONNECTED) {
+                builder.reconnectTime(RECONNECT_MILLIS);
+            }
+            if (comment != null) {
+                builder.comment(comment);
+            }
+            if (name != null) {
+                builder.name(name).data(json, MediaType.APPLICATION_JSON);
+            }
+            return builder;
+        }
+    }
+
+    private static class Subscriber {
+        private final Long questionId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<HubEvent> buffer = new ArrayDeque<>();
+        private boolean draining; // 已有发送任务在处理该连接
+        private boolean resyncPending; // 缓冲区中有尚未发出的 resync
+        private long sendStartedAt; // 正在进行的 send 的开始时间（nanoTime），0 表示没有
+        private boolean stalled; // 写入超时，已断开
+        private boolean compensated; // 已为卡住的写入补充了发送线程
+        private boolean closed;
+        private boolean removed;
+
+        Subscriber(Long questionId, SseEmitter emitter) {
+            this.questionId = questionId;
+            this.emitter = emitter;
+        }
+    }
+}
\ No newline at end of file
@@ -1,10 +1,18 @@
 package com.demo.repository;
 
+import com.demo.dto.RenderSource;
+import com.demo.dto.ReplyView;
 import com.demo.model.Reply;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
@@ -12,4 +20,39 @@ public interface ReplyRepository extends JpaRepository<Reply, Long> {
 
     @Query("SELECT r FROM Reply r JOIN FETCH r.user WHERE r.question.id = :questionId ORDER BY r.createdAt ASC")
     List<Reply> findByQuestionIdWithUser(Long questionId);
+
+    long countByUserId(Long userId);
+
+    // 回复第一页（按创建时间正序）
+    @Query("SELECT new com.demo.dto.ReplyView(r.id, r.content, r.contentHtml, u.username, r.createdAt) " +
+            "FROM Reply r JOIN r.user u WHERE r.question.id = :questionId " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<ReplyView> findFirstViews(@Param("questionId") Long questionId, Pageable pageable);
+
+    // 游标之后的下一页：(createdAt, id) 严格大于游标；createdAt >= 条件让索引可以直接定位到游标位置
+    @Query("SELECT new com.demo.dto.ReplyView(r.id, r.content, r.contentHtml, u.username, r.createdAt) " +
+            "FROM Reply r JOIN r.user u WHERE r.question.id = :questionId AND r.createdAt >= :createdAt " +
+            "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<ReplyView> findViewsAfter(@Param("questionId") Long questionId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    // 单条回复的展示投影（SSE 推送新回复）
+    @Query("SELECT new com.demo.dto.ReplyView(r.id, r.content, r.contentHtml, u.username, r.createdAt) " +
+            "FROM Reply r JOIN r.user u WHERE r.id = :id")
+    Optional<ReplyView> findViewById(@Param("id") Long id);
+
+    // 渲染版本落后的回复，按ID分批
+    @Query("SELECT new com.demo.dto.RenderSource(r.id, r.question.id, r.content) FROM Reply r " +
+            "WHERE r.renderVersion < :version AND r.id > :afterId ORDER BY r.id ASC")
+    List<RenderSource> findStaleRenderSources(@Param("version") int version,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Reply r SET r.contentHtml = :html, r.renderVersion = :version " +
+            "WHERE r.id = :id AND r.renderVersion < :version")
+    int updateRendered(@Param("id") Long id, @Param("html") String html, @Param("version") int version);
 }
\ No newline at end of file
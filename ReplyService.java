@@ -1,41 +1,93 @@
 package com.demo.service;
 
-import com.demo.model.Question;
+import com.demo.dto.CursorPage;
+import com.demo.dto.ReplyView;
+import com.demo.event.QuestionEvent;
 import com.demo.model.Reply;
-import com.demo.model.User;
 import com.demo.repository.ReplyRepository;
+import com.demo.security.UserPrincipal;
+import com.demo.util.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ReplyService {
 
     private final ReplyRepository replyRepository;
     private final QuestionService questionService;
+    private final UserService userService;
+    private final MarkdownService markdownService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reply.page-size:20}")
+    private int pageSize;
+
+    /**
+     * 回复分页（keyset），cursor 为空时返回第一页
+     */
+    @Timed("qa.service")
+    @Transactional(readOnly = true)
+    public CursorPage<ReplyView> getReplyPage(Long questionId, String cursor) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ReplyView> rows = after == null
+                ? replyRepository.findFirstViews(questionId, limit)
+                : replyRepository.findViewsAfter(questionId, after.getTimestamp(), after.getId(), limit);
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ReplyView> items = rows.subList(0, pageSize);
+        ReplyView last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
 
+    /**
+     * 新增回复：先更新问题的回复数（同时校验问题存在），再插入回复
+     * 问题和作者都只使用引用，不会额外查询 questions/users 表
+     */
+    @Timed("qa.service")
     @Transactional
-    public Reply addReply(Long questionId, String content, User user) {
-        Question question = questionService.getQuestionById(questionId);
+    public Reply addReply(Long questionId, String content, UserPrincipal author) {
+        LocalDateTime now = LocalDateTime.now();
+        questionService.recordReplyAdded(questionId, now);
 
         Reply reply = new Reply();
         reply.setContent(content);
-        reply.setUser(user);
-        reply.setQuestion(question);
+        reply.setContentHtml(markdownService.render(content));
+        reply.setRenderVersion(markdownService.getVersion());
+        reply.setCreatedAt(now);
+        reply.setUser(userService.getUserReference(author.getId()));
+        reply.setQuestion(questionService.getQuestionReference(questionId));
 
-        return replyRepository.save(reply);
+        Reply saved = replyRepository.save(reply);
+        eventPublisher.publishEvent(QuestionEvent.replyAdded(questionId, saved.getId()));
+        return saved;
     }
 
+    @Timed("qa.service")
     @Transactional
-    public void deleteReply(Long replyId, User user) {
+    public void deleteReply(Long replyId, UserPrincipal principal) {
         Reply reply = replyRepository.findById(replyId)
                 .orElseThrow(() -> new RuntimeException("回复不存在"));
 
-        if (!reply.getUser().getId().equals(user.getId())) {
+        if (!reply.getUser().getId().equals(principal.getId())) {
             throw new RuntimeException("无权删除此回复");
         }
 
+        Long questionId = reply.getQuestion().getId();
         replyRepository.delete(reply);
+        questionService.recordReplyDeleted(questionId);
+        eventPublisher.publishEvent(QuestionEvent.replyDeleted(questionId, replyId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+// src/main/java/com/demo/dto/ReplyView.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 回复的展示投影（不加载 Question/User 实体）
+ * contentHtml 为空时（尚未渲染）页面回退为纯文本显示 content
+ */
+@Data
+public class ReplyView {
+    private final Long id;
+    private final String content;
+    private final String contentHtml;
+    private final String authorName;
+    private final LocalDateTime createdAt;
+}
\ No newline at end of file
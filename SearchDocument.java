@@ -0,0 +1,29 @@
+// src/main/java/com/demo/dto/SearchDocument.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 建立搜索索引所需的问题字段投影
+ */
+@Data
+public class SearchDocument {
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final String authorName;
+    private final LocalDateTime createdAt;
+    private final int replyCount;
+
+    public SearchDocument(Long id, String title, String content, String authorName,
+                          LocalDateTime createdAt, Number replyCount) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.authorName = authorName;
+        this.createdAt = createdAt;
+        this.replyCount = replyCount != null ? replyCount.intValue() : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+// src/main/java/com/demo/dto/SearchHit.java
+package com.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 搜索结果
+ */
+@Data
+public class SearchHit {
+    private final Long id;
+    private final String title;
+    private final String snippet;
+    private final String authorName;
+    private final LocalDateTime createdAt;
+    private final int replyCount;
+    private final double score;
+}
\ No newline at end of file
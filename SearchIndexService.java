@@ -0,0 +1,349 @@
+// src/main/java/com/demo/service/SearchIndexService.java
+package com.demo.service;
+
+import com.demo.dto.SearchDocument;
+import com.demo.dto.SearchHit;
+import com.demo.event.QuestionEvent;
+import com.demo.repository.QuestionRepository;
+import com.demo.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内倒排索引，覆盖问题标题、内容和作者用户名
+ * 启动时（以及批量导入后）从数据库重建，之后通过 QuestionEvent 增量维护
+ * 重建期间到达的事件只记录问题ID，新索引替换上来之后再按ID从数据库读取最新内容补上，不会被重建结果覆盖
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int SNIPPET_SOURCE_LENGTH = 500; // 只保留内容前缀用于生成摘要
+    private static final int SNIPPET_LENGTH = 100;
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float CONTENT_WEIGHT = 1.0f;
+
+    private final QuestionRepository questionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Long, Float>> postings = new HashMap<>(); // 词项 -> (问题ID -> 权重)
+    private Map<Long, IndexedDocument> documents = new HashMap<>();
+    private Set<Long> pendingQuestionIds; // 重建期间有变化的问题，不在重建时为 null；由 lock 保护
+
+    /**
+     * 启动时从 H2 分批重建索引（只读事务，启用读写分离时读读库）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+        Map<Long, IndexedDocument> newDocuments = new HashMap<>();
+
+        lock.writeLock().lock();
+        try {
+            pendingQuestionIds = new LinkedHashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int caughtUp;
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> load(newPostings, newDocuments));
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            // 重建失败时同样要把缓冲的变化补到旧索引上
+            caughtUp = catchUp();
+        }
+        log.info("搜索索引重建完成: {} 个问题, {} 个词项, 补上重建期间变化的问题 {} 个, 耗时 {}ms",
+                newDocuments.size(), newPostings.size(), caughtUp, System.currentTimeMillis() - start);
+    }
+
+    private void load(Map<String, Map<Long, Float>> newPostings, Map<Long, IndexedDocument> newDocuments) {
+        Long lastId = 0L;
+        while (true) {
+            List<SearchDocument> batch = questionRepository.findSearchDocumentsAfter(
+                    lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (SearchDocument doc : batch) {
+                addDocument(doc, newPostings, newDocuments);
+                lastId = doc.getId();
+            }
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 按问题ID从数据库（事务外，读主库）重新读取重建期间变化过的问题，已删除的从索引移除
+     * 读取期间新到达的事件继续缓冲，直到一轮中没有新事件才恢复增量维护
+     */
+    private int catchUp() {
+        int count = 0;
+        while (true) {
+            Set<Long> questionIds;
+            lock.writeLock().lock();
+            try {
+                if (pendingQuestionIds.isEmpty()) {
+                    pendingQuestionIds = null;
+                    return count;
+                }
+                questionIds = pendingQuestionIds;
+                pendingQuestionIds = new LinkedHashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            for (Long questionId : questionIds) {
+                Optional<SearchDocument> doc = questionRepository.findSearchDocument(questionId);
+                if (doc.isPresent()) {
+                    index(doc.get());
+                } else {
+                    remove(questionId);
+                }
+            }
+            count += questionIds.size();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onQuestionEvent(QuestionEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingQuestionIds != null) {
+                pendingQuestionIds.add(event.getQuestionId());
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        switch (event.getType()) {
+            case QUESTION_CREATED:
+                questionRepository.findSearchDocument(event.getQuestionId()).ifPresent(this::index);
+                break;
+            case QUESTION_DELETED:
+                remove(event.getQuestionId());
+                break;
+            case REPLY_ADDED:
+                adjustReplyCount(event.getQuestionId(), 1);
+                break;
+            case REPLY_DELETED:
+                adjustReplyCount(event.getQuestionId(), -1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void index(SearchDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(doc.getId());
+            addDocument(doc, postings, documents);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long questionId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询并按相关度返回前 limit 条结果
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocs = documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> matchedTerms = new HashMap<>();
+
+            for (String term : queryTerms) {
+                Map<Long, Float> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) totalDocs / docs.size());
+                for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                    scores.merge(posting.getKey(), posting.getValue() * idf, Double::sum);
+                    matchedTerms.merge(posting.getKey(), 1, Integer::sum);
+                }
+            }
+
+            // 小顶堆保留得分最高的 limit 个，命中全部词项的结果优先
+            PriorityQueue<Map.Entry<Long, Double>> topK =
+                    new PriorityQueue<>(Comparator.comparingDouble(Map.Entry::getValue));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                double coverage = (double) matchedTerms.get(entry.getKey()) / queryTerms.size();
+                entry.setValue(entry.getValue() * coverage * coverage);
+                topK.offer(entry);
+                if (topK.size() > limit) {
+                    topK.poll();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(topK.size());
+            while (!topK.isEmpty()) {
+                Map.Entry<Long, Double> entry = topK.poll();
+                IndexedDocument doc = documents.get(entry.getKey());
+                hits.add(new SearchHit(doc.id, doc.title, buildSnippet(doc.snippetSource, query, queryTerms),
+                        doc.authorName, doc.createdAt, doc.replyCount, entry.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adjustReplyCount(Long questionId, int delta) {
+        lock.writeLock().lock();
+        try {
+            IndexedDocument doc = documents.get(questionId);
+            if (doc != null) {
+                doc.replyCount = Math.max(0, doc.replyCount + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addDocument(SearchDocument doc,
+                                    Map<String, Map<Long, Float>> postings,
+                                    Map<Long, IndexedDocument> documents) {
+        Map<String, Float> weights = new HashMap<>();
+        accumulate(weights, doc.getTitle(), TITLE_WEIGHT);
+        accumulate(weights, doc.getAuthorName(), AUTHOR_WEIGHT);
+        accumulate(weights, doc.getContent(), CONTENT_WEIGHT);
+
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                    .put(doc.getId(), entry.getValue());
+        }
+
+        String content = doc.getContent() != null ? doc.getContent() : "";
+        documents.put(doc.getId(), new IndexedDocument(
+                doc.getId(),
+                doc.getTitle(),
+                doc.getAuthorName(),
+                doc.getCreatedAt(),
+                doc.getReplyCount(),
+                content.length() > SNIPPET_SOURCE_LENGTH ? content.substring(0, SNIPPET_SOURCE_LENGTH) : content,
+                weights.keySet().toArray(new String[0])));
+    }
+
+    private void removeDocument(Long questionId) {
+        IndexedDocument old = documents.remove(questionId);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(questionId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void accumulate(Map<String, Float> weights, String text, float weight) {
+        for (String token : SearchTokenizer.tokenizeForIndex(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static String buildSnippet(String source, String query, List<String> queryTerms) {
+        if (source.isEmpty()) {
+            return source;
+        }
+        String lower = source.toLowerCase(Locale.ROOT);
+        int pos = lower.indexOf(query.trim().toLowerCase(Locale.ROOT));
+        for (int i = 0; pos < 0 && i < queryTerms.size(); i++) {
+            pos = lower.indexOf(queryTerms.get(i));
+        }
+
+        int start = pos < 0 ? 0 : Math.max(0, pos - SNIPPET_LENGTH / 4);
+        int end = Math.min(source.length(), start + SNIPPET_LENGTH);
+        String snippet = source.substring(start, end);
+        return (start > 0 ? "..." : "") + snippet + (end < source.length() ? "..." : "");
+    }
+
+    private static class IndexedDocument {
+        private final Long id;
+        private final String title;
+        private final String authorName;
+        private final LocalDateTime createdAt;
+        private int replyCount;
+        private final String snippetSource;
+        private final String[] terms; // 删除时用于清理倒排表
+
+        IndexedDocument(Long id, String title, String authorName, LocalDateTime createdAt,
+                        int replyCount, String snippetSource, String[] terms) {
+            this.id = id;
+            this.title = title;
+            this.authorName = authorName;
+            this.createdAt = createdAt;
+            this.replyCount = replyCount;
+            this.snippetSource = snippetSource;
+            this.terms = terms;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+// src/main/java/com/demo/util/SearchTokenizer.java
+package com.demo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜索分词：英文/数字按连续字母数字切分并转小写，中日韩文字按二元组（bigram）切分
+ * 建索引时中日韩文字另外逐字生成单字词项，单字查询（如“锁”）也能命中出现在长句中的该字
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 查询分词：多字只生成二元组，单字作为单字词项
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 建索引分词：在查询分词的基础上，每个中日韩文字再生成一个单字词项
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(cp);
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjk, tokens, unigrams);
+                word.appendCodePoint(Character.toLowerCase(cp));
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens, unigrams);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens, unigrams);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(StringBuilder run, List<String> tokens, boolean unigrams) {
+        if (run.length() == 0) {
+            return;
+        }
+        int[] cps = run.codePoints().toArray();
+        if (cps.length == 1 || unigrams) {
+            // 单字无法组成二元组，直接作为词项；建索引时每个字都生成单字词项
+            for (int j = 0; j < cps.length; j++) {
+                tokens.add(new String(cps, j, 1));
+            }
+        }
+        for (int j = 0; j + 1 < cps.length; j++) {
+            tokens.add(new String(cps, j, 2));
+        }
+        run.setLength(0);
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
\ No newline at end of file
@@ -1,30 +1,54 @@
 // src/main/java/com/demo/config/SecurityConfig.java
 package com.demo.config;
 
+import com.demo.security.PasswordHashingBusyException;
+import com.demo.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder; // 见 PasswordHashingConfig
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        // 使用延迟加载方式，避免循环依赖
-        auth.userDetailsService(userDetailsService()).passwordEncoder(passwordEncoder());
+        // UserService 同时实现了 UserDetailsPasswordService，成本因子变化后登录成功时自动重新哈希
+        auth.userDetailsService(userService).passwordEncoder(passwordEncoder);
+    }
+
+    /**
+     * 密码哈希线程池满时返回 503，而不是当作密码错误跳回登录页
+     */
+    private AuthenticationFailureHandler loginFailureHandler() {
+        SimpleUrlAuthenticationFailureHandler fallback = new SimpleUrlAuthenticationFailureHandler("/login?error=true");
+        return (request, response, exception) -> {
+            if (exception instanceof PasswordHashingBusyException
+                    || exception.getCause() instanceof PasswordHashingBusyException) {
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "服务繁忙，请稍后重试");
+                return;
+            }
+            fallback.onAuthenticationFailure(request, response, exception);
+        };
+    }
+
+    // 静态资源不经过安全过滤器链，避免为每个资源请求读取会话和写入 no-cache 头
+    @Override
+    public void configure(WebSecurity web) {
+        web.ignoring().antMatchers("/static/**");
     }
 
     @Override
@@ -32,16 +56,19 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         http
                 .authorizeRequests()
                 .antMatchers("/", "/questions", "/questions/**",
-                        "/register", "/login", "/captcha/**",
+                        "/register", "/login", "/captcha/**", "/api/search", "/api/questions/**",
                         "/css/**", "/js/**", "/images/**",
                         "/h2-console/**").permitAll()
+                // 只在独立的管理端口上暴露（management.server.port），不对外开放
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .antMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
                 .and()
                 .formLogin()
                 .loginPage("/login")
                 .loginProcessingUrl("/login")
                 .defaultSuccessUrl("/questions")
-                .failureUrl("/login?error=true")
+                .failureHandler(loginFailureHandler())
                 .usernameParameter("username")
                 .passwordParameter("password")
                 .permitAll()
@@ -55,8 +82,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .and()
                 .rememberMe()
                 .and()
+                .httpBasic() // 供脚本调用 /admin 接口
+                .and()
                 .csrf()
                 .ignoringAntMatchers("/h2-console/**", "/register", "/login")
+                .ignoringRequestMatchers(request -> request.getRequestURI().startsWith("/admin/")
+                        && request.getHeader("Authorization") != null)
                 .and()
                 .headers()
                 .frameOptions().sameOrigin();
@@ -0,0 +1,94 @@
+// src/main/java/com/demo/monitor/SqlBudgetFilter.java
+package com.demo.monitor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 统计每个请求执行的 SQL 条数，超出该路径的预算时按 sql.budget.mode 记录警告或错误日志，并在请求上标记 VIOLATION_ATTRIBUTE
+ * 警告日志带有按指纹的直方图，用来定位模板中的懒加载等 N+1 查询
+ */
+@Component
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final String RECORDING_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".RECORDING";
+
+    /** 超出预算时写入的请求属性（说明文字），MockMvc 测试据此断言；响应此时通常已经提交，无法再改状态码 */
+    public static final String VIOLATION_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".VIOLATION";
+
+    private final SqlBudgetProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return properties.getMode() == SqlBudgetProperties.Mode.OFF;
+    }
+
+    /**
+     * 异步请求在最后一次分派（渲染视图）时才检查预算，中间的分派继续写入同一个计数
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementContext.Recording recording =
+                (SqlStatementContext.Recording) request.getAttribute(RECORDING_ATTRIBUTE);
+        if (recording == null) {
+            recording = SqlStatementContext.begin();
+            request.setAttribute(RECORDING_ATTRIBUTE, recording);
+        } else {
+            SqlStatementContext.attach(recording);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementContext.end(recording);
+        }
+        if (request.isAsyncStarted()) {
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int budget = budgetFor(path);
+        int count = recording.getCount();
+        if (count <= budget) {
+            return;
+        }
+
+        String message = String.format("%s %s 执行了 %d 条 SQL，超出预算 %d:%s", request.getMethod(), path,
+                count, budget, recording.describe(properties.getHistogramSize()));
+        request.setAttribute(VIOLATION_ATTRIBUTE, message);
+        if (properties.getMode() == SqlBudgetProperties.Mode.ERROR) {
+            log.error(message);
+        } else {
+            log.warn(message);
+        }
+    }
+
+    int budgetFor(String path) {
+        for (Map.Entry<String, Integer> entry : properties.getEndpoints().entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return properties.getDefaultBudget();
+    }
+}
\ No newline at end of file
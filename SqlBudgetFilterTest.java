@@ -0,0 +1,114 @@
+// src/test/java/com/demo/monitor/SqlBudgetFilterTest.java
+package com.demo.monitor;
+
+import com.demo.model.Question;
+import com.demo.model.User;
+import com.demo.repository.QuestionRepository;
+import com.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 有预算的页面在预算内完成：QueryBudget 统计请求线程和 ReadExecutor 任务中的 SQL，
+ * SqlBudgetFilter 没有标记超出预算
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "sql.budget.mode=error",
+        "captcha.pool.size=0",
+        "security.password.benchmark-on-startup=false",
+        "management.server.port=-1"
+})
+@AutoConfigureMockMvc
+class SqlBudgetFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    private Long questionId;
+
+    @BeforeEach
+    void setUp() {
+        User author = userRepository.findByUsername("budget-author").orElseGet(() -> {
+            User user = new User();
+            user.setUsername("budget-author");
+            user.setPassword("unused");
+            return userRepository.save(user);
+        });
+
+        Question question = new Question();
+        question.setTitle("预算测试");
+        question.setContent("内容");
+        question.setContentHtml("<p>内容</p>");
+        question.setUser(author);
+        questionId = questionRepository.save(question).getId();
+    }
+
+    @Test
+    void questionListStaysWithinBudget() throws Exception {
+        try (QueryBudget budget = QueryBudget.expectAtMost(2)) {
+            MvcResult result = mockMvc.perform(get("/questions"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(SqlBudgetFilter.VIOLATION_ATTRIBUTE, nullValue()));
+            assertTrue(budget.getCount() > 0, "异步任务中的 SQL 应计入外层 QueryBudget");
+        }
+    }
+
+    @Test
+    void questionDetailStaysWithinBudget() throws Exception {
+        try (QueryBudget budget = QueryBudget.expectAtMost(3)) {
+            MvcResult result = mockMvc.perform(get("/questions/" + questionId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(SqlBudgetFilter.VIOLATION_ATTRIBUTE, nullValue()));
+        }
+    }
+
+    // 用户在 @BeforeEach 中创建，登录信息在它之后加载
+    @Test
+    @WithUserDetails(value = "budget-author", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void profileStaysWithinBudget() throws Exception {
+        try (QueryBudget budget = QueryBudget.expectAtMost(5)) {
+            mockMvc.perform(get("/profile"))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(SqlBudgetFilter.VIOLATION_ATTRIBUTE, nullValue()));
+        }
+    }
+
+    @Test
+    void replyPageStaysWithinBudget() throws Exception {
+        try (QueryBudget budget = QueryBudget.expectAtMost(3)) {
+            MvcResult result = mockMvc.perform(get("/api/questions/" + questionId + "/replies"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(SqlBudgetFilter.VIOLATION_ATTRIBUTE, nullValue()));
+        }
+    }
+}
\ No newline at end of file
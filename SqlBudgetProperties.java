@@ -0,0 +1,36 @@
+// src/main/java/com/demo/monitor/SqlBudgetProperties.java
+package com.demo.monitor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 每个请求允许执行的 SQL 条数
+ * <pre>
+ * sql.budget.mode=warn
+ * sql.budget.default-budget=20
+ * sql.budget.endpoints[/questions/*]=4
+ * </pre>
+ * endpoints 的键是 Ant 风格路径，按配置顺序匹配第一个
+ */
+@Data
+@ConfigurationProperties(prefix = "sql.budget")
+public class SqlBudgetProperties {
+
+    /**
+     * 超出预算不会让请求失败：测试需要断言 SqlBudgetFilter.VIOLATION_ATTRIBUTE，或用 QueryBudget 包住请求
+     */
+    public enum Mode {
+        OFF,  // 不计数
+        WARN, // 超出时记录警告日志
+        ERROR // 超出时记录错误日志（集成测试中使用，便于在测试输出中发现）
+    }
+
+    private Mode mode = Mode.WARN;
+    private int defaultBudget = 20;
+    private int histogramSize = 10; // 警告日志中列出的指纹数量
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+}
\ No newline at end of file
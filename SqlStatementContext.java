@@ -0,0 +1,152 @@
+// src/main/java/com/demo/monitor/SqlStatementContext.java
+package com.demo.monitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 当前线程上正在进行的 SQL 语句计数（由 CountingStatementInspector 写入）
+ * 支持嵌套：请求级的 SqlBudgetFilter 和测试中的 QueryBudget 可以同时计数
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<Deque<Recording>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_FINGERPRINT_LENGTH = 160;
+
+    private SqlStatementContext() {
+    }
+
+    public static Recording begin() {
+        return push(new Recording(false));
+    }
+
+    /**
+     * 同时保留原始 SQL 文本（QueryPlanVerifier 用来对实际执行的语句做 EXPLAIN）
+     */
+    public static Recording beginCapture() {
+        return push(new Recording(true));
+    }
+
+    private static Recording push(Recording recording) {
+        ACTIVE.get().push(recording);
+        return recording;
+    }
+
+    /**
+     * 在另一个线程上继续写入已有的计数（异步任务），结束时同样调用 end
+     */
+    public static void attach(Recording recording) {
+        ACTIVE.get().push(recording);
+    }
+
+    public static void end(Recording recording) {
+        Deque<Recording> stack = ACTIVE.get();
+        stack.remove(recording);
+        if (stack.isEmpty()) {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * 当前线程上的全部计数（由内到外），异步任务整体传递后，外层的 QueryBudget 也能统计到任务中的语句
+     */
+    public static List<Recording> currentAll() {
+        Deque<Recording> stack = ACTIVE.get();
+        if (stack.isEmpty()) {
+            ACTIVE.remove();
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(stack);
+    }
+
+    static void record(String sql) {
+        Deque<Recording> stack = ACTIVE.get();
+        if (stack.isEmpty()) {
+            ACTIVE.remove();
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        for (Recording recording : stack) {
+            recording.add(fingerprint, sql);
+        }
+    }
+
+    /**
+     * 去掉字面量和多余空白，同一条语句不同参数得到相同的指纹
+     */
+    static String fingerprint(String sql) {
+        String normalized = sql.toLowerCase();
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        return normalized.length() > MAX_FINGERPRINT_LENGTH
+                ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..."
+                : normalized;
+    }
+
+    /**
+     * 一次计数：语句总数和按指纹的直方图
+     * 同一个 Recording 可能被异步任务的线程写入，方法都加了同步
+     */
+    public static final class Recording {
+        private final Map<String, Integer> histogram = new LinkedHashMap<>();
+        private final List<String> statements; // 不保留原始 SQL 时为空
+        private int count;
+
+        private Recording(boolean captureSql) {
+            this.statements = captureSql ? new ArrayList<>() : null;
+        }
+
+        synchronized void add(String fingerprint, String sql) {
+            count++;
+            histogram.merge(fingerprint, 1, Integer::sum);
+            if (statements != null) {
+                statements.add(sql);
+            }
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        /**
+         * 按执行顺序的原始 SQL，仅 beginCapture 开始的计数有值
+         */
+        public synchronized List<String> getStatements() {
+            return statements != null ? new ArrayList<>(statements) : new ArrayList<>();
+        }
+
+        /**
+         * 按出现次数降序，N+1 查询会表现为同一指纹出现多次
+         */
+        public synchronized List<Map.Entry<String, Integer>> topFingerprints(int limit) {
+            return histogram.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limit)
+                    .map(e -> Map.entry(e.getKey(), e.getValue()))
+                    .collect(Collectors.toList());
+        }
+
+        public String describe(int limit) {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Integer> entry : topFingerprints(limit)) {
+                sb.append(System.lineSeparator()).append(String.format("  %3d × %s", entry.getValue(), entry.getKey()));
+            }
+            return sb.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+// src/main/java/com/demo/security/UserPrincipal.java
+package com.demo.security;
+
+import com.demo.model.User;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 登录用户信息，携带用户ID等不可变字段，写操作无需再按用户名查询 users 表
+ */
+@Getter
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private final LocalDateTime createdAt;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private String password; // 认证完成后会被清除
+
+    public UserPrincipal(Long id, String username, String password, LocalDateTime createdAt,
+                         Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.createdAt = createdAt;
+        this.authorities = Collections.unmodifiableCollection(authorities);
+    }
+
+    public static UserPrincipal of(User user) {
+        return of(user, false);
+    }
+
+    public static UserPrincipal of(User user, boolean admin) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        if (admin) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getCreatedAt(),
+                authorities);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    // 与 Spring Security 自带的 User 一致，按用户名判断是否同一用户（会话并发控制依赖此行为）
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof UserPrincipal && username.equals(((UserPrincipal) o).username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
\ No newline at end of file
@@ -3,27 +3,34 @@ package com.demo.service;
 
 import com.demo.model.User;
 import com.demo.repository.UserRepository;
+import com.demo.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
+    @Value("${app.admin-usernames:}")
+    private Set<String> adminUsernames; // 拥有 ROLE_ADMIN（如批量导入）的用户名
+
     @Override
+    @Timed("qa.service")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.info("尝试加载用户: {}", username);
 
@@ -34,14 +41,28 @@ public class UserService implements UserDetailsService {
                 });
 
         log.info("用户加载成功: {}", username);
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-        );
+        return UserPrincipal.of(user, adminUsernames.contains(user.getUsername()));
     }
 
+    /**
+     * 登录成功且旧哈希的成本因子与当前配置不同时，由 DaoAuthenticationProvider 调用，保存新哈希
+     */
+    @Override
+    @Timed("qa.service")
     @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        log.info("用户密码已按新的成本因子重新哈希: {}", user.getUsername());
+        return userRepository.findByUsername(user.getUsername())
+                .map(u -> UserPrincipal.of(u, adminUsernames.contains(u.getUsername())))
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + user.getUsername()));
+    }
+
+    /**
+     * 不加 @Transactional：BCrypt 哈希耗时较长，不应在哈希期间占用数据库连接，
+     * 用户名的并发重复由 users 表的唯一约束兜底
+     */
+    @Timed("qa.service")
     public void registerUser(String username, String password, String email) {
         log.info("开始注册用户: {}, 邮箱: {}", username, email);
 
@@ -63,15 +84,25 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("邮箱已被注册");
         }
 
+        String hashed = passwordEncoder.encode(password.trim());
+
         User user = new User();
         user.setUsername(username.trim());
-        user.setPassword(passwordEncoder.encode(password.trim()));
+        user.setPassword(hashed);
         user.setEmail(email != null ? email.trim() : null);
 
         userRepository.save(user);
         log.info("用户注册成功: {}", username);
     }
 
+    /**
+     * 返回用户的引用（代理对象），只用于设置外键，不会查询 users 表
+     */
+    public User getUserReference(Long userId) {
+        return userRepository.getById(userId);
+    }
+
+    @Timed("qa.service")
     public User getUserByUsername(String username) {
         log.info("获取用户信息: {}", username);
 
@@ -0,0 +1,44 @@
+-- src/main/resources/db/migration/V1__baseline_schema.sql
+-- 基线表结构：与最初版本 ddl-auto=update 生成的结构一致（IDENTITY 主键、Base64 验证码图片）
+-- 已有数据库通过 spring.flyway.baseline-on-migrate 直接标记为 V1，不会重复执行，随后由 V2 起的迁移升级
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(50) not null,
+    password varchar(255) not null,
+    email varchar(100),
+    created_at timestamp,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table questions (
+    id bigint generated by default as identity,
+    title varchar(200) not null,
+    content text not null,
+    created_at timestamp,
+    user_id bigint not null,
+    primary key (id),
+    constraint fk_questions_user foreign key (user_id) references users (id)
+);
+
+create table replies (
+    id bigint generated by default as identity,
+    content text not null,
+    created_at timestamp,
+    user_id bigint not null,
+    question_id bigint not null,
+    primary key (id),
+    constraint fk_replies_user foreign key (user_id) references users (id),
+    constraint fk_replies_question foreign key (question_id) references questions (id)
+);
+
+create table captchas (
+    captcha_id varchar(50) not null,
+    captcha_code varchar(10) not null,
+    base64_image text,
+    expire_time timestamp not null,
+    created_at timestamp not null,
+    is_used boolean not null,
+    primary key (captcha_id)
+);
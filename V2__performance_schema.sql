@@ -0,0 +1,44 @@
+-- src/main/resources/db/migration/V2__performance_schema.sql
+-- 性能改造新增的结构：序列主键、冗余统计列、预渲染 HTML、PNG 验证码图片、问题变更日志
+-- 使用 IF [NOT] EXISTS，由中间版本（ddl-auto=update）建出的数据库也能直接升级
+
+-- 主键改由序列分配（pooled，每次 50 个），原 IDENTITY 默认值保留但不再使用
+-- 已有数据的序列由 IdSequenceInitializer 在启动时推到 MAX(id) 之后
+create sequence if not exists user_seq start with 1 increment by 50;
+create sequence if not exists question_seq start with 1 increment by 50;
+create sequence if not exists reply_seq start with 1 increment by 50;
+
+-- 预渲染的 Markdown：render_version 为 0 的历史数据由 MarkdownRerenderJob 补齐
+alter table questions add column if not exists content_html text;
+alter table questions add column if not exists render_version int default 0 not null;
+alter table replies add column if not exists content_html text;
+alter table replies add column if not exists render_version int default 0 not null;
+
+-- 冗余统计与 ETag 版本号，历史数据按现有回复补齐
+alter table questions add column if not exists reply_count int default 0 not null;
+alter table questions add column if not exists last_activity_at timestamp;
+alter table questions add column if not exists version bigint default 0 not null;
+alter table questions add column if not exists updated_at timestamp;
+
+update questions q set
+    reply_count = (select count(*) from replies r where r.question_id = q.id),
+    last_activity_at = coalesce((select max(r.created_at) from replies r where r.question_id = q.id), q.created_at)
+where q.last_activity_at is null;
+
+-- 验证码图片改存 PNG 原始字节；未过期的旧验证码无法复用，直接清空
+delete from captchas;
+alter table captchas drop column if exists base64_image;
+alter table captchas add column if not exists image_png blob;
+
+-- 问题变更日志（/api/questions/changes）：序号每次分配一个（allocationSize = 1），多实例时也按提交大致递增
+-- 中间版本建出的序列步长为 50，一并改为 1
+create sequence if not exists question_change_seq start with 1 increment by 1;
+alter sequence question_change_seq increment by 1;
+
+create table if not exists question_changes (
+    id bigint not null,
+    question_id bigint,
+    type varchar(20) not null,
+    changed_at timestamp not null,
+    primary key (id)
+);
@@ -0,0 +1,27 @@
+-- src/main/resources/db/migration/V3__performance_indexes.sql
+-- 热点查询使用的索引，每个索引对应的查询见注释；QueryPlanVerifier 用 EXPLAIN 检查这些查询不走全表扫描
+-- 倒序分页的索引按 DESC 建立，与 ORDER BY 方向一致，查询可以直接按索引顺序读取前 N 条
+
+-- 问题列表第一页/下一页：ORDER BY created_at DESC, id DESC（findLatestSummaries / findSummariesBefore）
+create index idx_questions_created on questions (created_at desc, id desc);
+
+-- 按最后活跃时间排序的列表（findMostActiveSummaries / findActiveSummariesBefore）
+create index idx_questions_activity on questions (last_activity_at desc, id desc);
+
+-- 个人资料页：某个用户的提问及计数（findSummariesByUser / findSummariesByUserBefore / countByUserId）
+create index idx_questions_user_created on questions (user_id, created_at desc, id desc);
+
+-- 详情页回复分页：WHERE question_id = ? ORDER BY created_at, id（findFirstViews / findViewsAfter / findByQuestionIdWithUser）
+create index idx_replies_question_created on replies (question_id, created_at, id);
+
+-- 个人资料页回复数（countByUserId）；H2/MySQL 会为外键自动建索引，其他数据库不会，这里显式建立
+create index idx_replies_user on replies (user_id);
+
+-- 注册时检查邮箱是否已被使用（existsByEmail）
+create index idx_users_email on users (email);
+
+-- 过期验证码清理（captcha.store.type=jpa 时的 deleteExpired）
+create index idx_captchas_expire on captchas (expire_time);
+
+-- 变更日志清理：按时间找到保留边界（findLastSeqBefore）
+create index idx_question_changes_changed on question_changes (changed_at);
@@ -12,6 +12,8 @@ document.addEventListener('DOMContentLoaded', function() {
     initMarkdownPreview();
     initConfirmationDialogs();
     initCharacterCounters();
+    initReplyPaging();
+    initReplyEvents();
 });
 
 /**
@@ -340,6 +342,253 @@ function initCharacterCounters() {
     });
 }
 
+/**
+ * 初始化回复滚动加载
+ * 详情页只渲染第一页回复，滚动到 #reply-sentinel 时请求下一页
+ */
+function initReplyPaging() {
+    const sentinel = document.getElementById('reply-sentinel');
+    const replyList = document.getElementById('reply-list');
+    if (!sentinel || !replyList) return;
+
+    const questionId = sentinel.dataset.questionId;
+    let loading = false;
+
+    async function loadNextPage() {
+        const cursor = sentinel.dataset.nextCursor;
+        if (loading || !cursor) return;
+        loading = true;
+
+        try {
+            const response = await fetch(`/api/questions/${questionId}/replies?cursor=${encodeURIComponent(cursor)}`);
+            if (!response.ok) {
+                throw new Error('加载失败');
+            }
+            const page = await response.json();
+
+            page.items.forEach(reply => {
+                replyList.insertAdjacentHTML('beforeend', renderReplyCard(questionId, reply));
+            });
+
+            if (page.nextCursor) {
+                sentinel.dataset.nextCursor = page.nextCursor;
+            } else {
+                if (observer) observer.disconnect();
+                sentinel.remove();
+            }
+        } catch (error) {
+            console.error('加载回复失败:', error);
+            showToast('加载回复失败，请稍后重试', 'error');
+        } finally {
+            loading = false;
+        }
+    }
+
+    const button = sentinel.querySelector('button');
+    if (button) {
+        button.addEventListener('click', loadNextPage);
+    }
+
+    let observer = null;
+    if ('IntersectionObserver' in window) {
+        observer = new IntersectionObserver(entries => {
+            if (entries.some(entry => entry.isIntersecting)) {
+                loadNextPage();
+            }
+        }, { rootMargin: '200px' });
+        observer.observe(sentinel);
+    }
+}
+
+/**
+ * 订阅当前问题的回复推送（SSE），新回复直接插入列表，不再整页刷新
+ * 还有未加载的回复页时不插入，滚动加载到末尾时自然会包含新回复
+ * 服务端缓冲区溢出时发送 resync，断线重连期间的事件也会错过，这两种情况都重新加载回复区
+ */
+function initReplyEvents() {
+    const replyList = document.getElementById('reply-list');
+    if (!replyList || !('EventSource' in window)) return;
+
+    const questionId = replyList.dataset.questionId;
+    const source = new EventSource(`/questions/${questionId}/events`);
+    let disconnected = false;
+    let syncing = false;
+    let dirty = false; // 重新加载期间又收到了事件，加载完成后再来一次
+
+    async function resync() {
+        if (syncing) {
+            dirty = true;
+            return;
+        }
+        syncing = true;
+        try {
+            do {
+                dirty = false;
+                await reloadReplySection(questionId);
+            } while (dirty);
+        } catch (error) {
+            console.error('重新加载回复失败:', error);
+            if (error.status === 404) {
+                source.close();
+                showToast('该问题已被删除', 'warning');
+            }
+        } finally {
+            syncing = false;
+        }
+    }
+
+    source.addEventListener('open', () => {
+        if (disconnected) {
+            disconnected = false;
+            resync();
+        }
+    });
+    source.addEventListener('error', () => {
+        disconnected = true;
+    });
+    source.addEventListener('resync', resync);
+
+    function adjustReplyCount(delta) {
+        document.querySelectorAll('.reply-count').forEach(el => {
+            el.textContent = Math.max(0, (parseInt(el.textContent, 10) || 0) + delta);
+        });
+    }
+
+    source.addEventListener('reply-added', event => {
+        if (syncing) {
+            dirty = true;
+            return;
+        }
+        const reply = JSON.parse(event.data);
+        if (replyList.querySelector(`[data-reply-id="${reply.id}"]`)) return; // 自己刚提交的回复已在页面上
+        adjustReplyCount(1);
+        if (document.getElementById('reply-sentinel')) return;
+
+        const empty = document.getElementById('reply-empty');
+        if (empty) empty.remove();
+        replyList.insertAdjacentHTML('beforeend', renderReplyCard(questionId, reply));
+    });
+
+    source.addEventListener('reply-deleted', event => {
+        if (syncing) {
+            dirty = true;
+            return;
+        }
+        const { id } = JSON.parse(event.data);
+        const card = replyList.querySelector(`[data-reply-id="${id}"]`);
+        if (card) {
+            card.remove();
+        }
+        adjustReplyCount(-1);
+    });
+
+    source.addEventListener('question-deleted', () => {
+        source.close();
+        showToast('该问题已被删除', 'warning');
+    });
+
+    window.addEventListener('beforeunload', () => source.close());
+}
+
+/**
+ * 重新加载回复区：回复数、第一页回复和“加载更多”，内容以服务端当前页面为准
+ */
+async function reloadReplySection(questionId) {
+    const response = await fetch(`/questions/${questionId}`, { cache: 'no-store', credentials: 'same-origin' });
+    if (!response.ok) {
+        const error = new Error('加载失败');
+        error.status = response.status;
+        throw error;
+    }
+    const doc = new DOMParser().parseFromString(await response.text(), 'text/html');
+    const replyList = document.getElementById('reply-list');
+    const freshList = doc.getElementById('reply-list');
+    if (!replyList || !freshList) return;
+
+    replyList.innerHTML = freshList.innerHTML;
+
+    const freshCounts = doc.querySelectorAll('.reply-count');
+    document.querySelectorAll('.reply-count').forEach((el, i) => {
+        if (freshCounts[i]) el.textContent = freshCounts[i].textContent;
+    });
+
+    replaceReplySectionPart('reply-empty', doc, el => replyList.before(el));
+    replaceReplySectionPart('reply-sentinel', doc, el => replyList.after(el));
+    initReplyPaging();
+}
+
+function replaceReplySectionPart(id, doc, insert) {
+    const current = document.getElementById(id);
+    if (current) current.remove();
+    const fresh = doc.getElementById(id);
+    if (fresh) insert(document.importNode(fresh, true));
+}
+
+/**
+ * 渲染一条回复（与 detail-body.html 中的结构一致）
+ */
+function renderReplyCard(questionId, reply) {
+    const currentUserEl = document.getElementById('current-user');
+    const currentUser = currentUserEl ? currentUserEl.dataset.username : null;
+    const csrfInput = document.querySelector('input[name="_csrf"]');
+    const time = typeof Utils !== 'undefined'
+        ? Utils.formatDateTime(reply.createdAt, 'yyyy-MM-dd HH:mm')
+        : reply.createdAt;
+
+    let actions = '';
+    if (currentUser && currentUser === reply.authorName) {
+        actions = `
+            <form action="/questions/${questionId}/replies/${reply.id}/delete" method="post" class="d-inline">
+                ${csrfInput ? `<input type="hidden" name="_csrf" value="${escapeHtml(csrfInput.value)}">` : ''}
+                <button type="submit" class="btn btn-link text-danger btn-action"
+                        onclick="return confirm('确定要删除这条回复吗？')">
+                    <i class="bi bi-trash"></i>
+                </button>
+            </form>
+        `;
+    }
+
+    return `
+        <div class="card reply-card mb-3" data-reply-id="${reply.id}">
+            <div class="card-body">
+                <div class="d-flex justify-content-between align-items-start mb-2">
+                    <div>
+                        <strong class="me-2">
+                            <i class="bi bi-person-circle"></i>
+                            <span>${escapeHtml(reply.authorName)}</span>
+                        </strong>
+                        <small class="text-muted">
+                            <i class="bi bi-clock"></i>
+                            <span>${escapeHtml(time)}</span>
+                        </small>
+                    </div>
+                    <span>${actions}</span>
+                </div>
+                <div class="reply-content card-text">${replyContentHtml(reply)}</div>
+            </div>
+        </div>
+    `;
+}
+
+/**
+ * 回复内容：优先使用服务端写入时渲染好的 HTML，尚未渲染时按纯文本显示
+ */
+function replyContentHtml(reply) {
+    return reply.contentHtml != null ? reply.contentHtml : escapeHtml(reply.content);
+}
+
+/**
+ * 转义HTML特殊字符
+ */
+function escapeHtml(text) {
+    return String(text == null ? '' : text)
+        .replace(/&/g, '&amp;')
+        .replace(/</g, '&lt;')
+        .replace(/>/g, '&gt;')
+        .replace(/"/g, '&quot;')
+        .replace(/'/g, '&#39;');
+}
+
 /**
  * 显示Toast通知
  */
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# scripts/precompress-assets.sh
+# 构建时为静态资源生成 .gz 和 .br 预压缩文件，由 WebMvcConfig 中的 EncodedResourceResolver 直接返回
+# 用法：在资源复制到构建输出之后、打包之前执行
+#   scripts/precompress-assets.sh target/classes/static        # Maven
+#   scripts/precompress-assets.sh build/resources/main/static  # Gradle
+set -euo pipefail
+
+STATIC_DIR="${1:-target/classes/static}"
+
+if [ ! -d "$STATIC_DIR" ]; then
+    echo "静态资源目录不存在: $STATIC_DIR" >&2
+    exit 1
+fi
+
+if ! command -v brotli >/dev/null 2>&1; then
+    echo "未找到 brotli，只生成 gzip 版本" >&2
+fi
+
+count=0
+while IFS= read -r -d '' file; do
+    gzip -9 -n -k -f "$file"
+    if command -v brotli >/dev/null 2>&1; then
+        brotli -q 11 -k -f "$file"
+    fi
+    count=$((count + 1))
+done < <(find "$STATIC_DIR" -type f \( -name '*.js' -o -name '*.css' -o -name '*.svg' -o -name '*.html' \) -print0)
+
+echo "已预压缩 $count 个文件: $STATIC_DIR"
@@ -8,8 +8,10 @@ class SearchService {
         this.searchInput = document.getElementById('search-input');
         this.searchResults = document.getElementById('search-results');
         this.searchModal = null;
-        this.questionsCache = null;
+        this.resultCache = new Map(); // 查询词 -> 服务端结果，避免重复请求
         this.lastSearchTime = 0;
+        this.changeCursor = null; // /api/questions/changes 的同步游标
+        this.syncing = false;
 
         this.init();
     }
@@ -23,21 +25,74 @@ class SearchService {
         // 监听键盘事件
         this.searchInput.addEventListener('keydown', this.handleKeydown.bind(this));
 
-        // 预加载问题数据
-        this.preloadQuestions();
+        this.startChangeSync();
     }
 
     /**
-     * 预加载问题数据
+     * 定期拉取问题变更，增量修正已缓存的搜索结果，而不是整体丢弃
      */
-    async preloadQuestions() {
+    async startChangeSync() {
         try {
-            const response = await fetch('/api/questions');
-            if (response.ok) {
-                this.questionsCache = await response.json();
+            const response = await fetch('/api/questions/changes');
+            if (!response.ok) return;
+            this.changeCursor = (await response.json()).cursor;
+        } catch (error) {
+            return; // 同步不可用时缓存照常使用
+        }
+
+        setInterval(() => {
+            if (!document.hidden) {
+                this.syncChanges();
+            }
+        }, SearchService.SYNC_INTERVAL);
+    }
+
+    async syncChanges() {
+        if (this.syncing || this.changeCursor === null) return;
+        this.syncing = true;
+        try {
+            let hasMore = true;
+            while (hasMore) {
+                const response = await fetch(`/api/questions/changes?since=${this.changeCursor}`);
+                if (!response.ok) return;
+                const feed = await response.json();
+
+                if (feed.reset) {
+                    this.resultCache.clear();
+                } else {
+                    this.applyChanges(feed.changes);
+                }
+                this.changeCursor = feed.cursor;
+                hasMore = feed.hasMore;
             }
         } catch (error) {
-            console.error('预加载问题数据失败:', error);
+            console.warn('同步问题变更失败:', error);
+        } finally {
+            this.syncing = false;
+        }
+    }
+
+    /**
+     * 删除的问题从缓存结果中移除，回复数变化原地更新；有新问题时缓存的结果可能不完整，整体清空
+     */
+    applyChanges(changes) {
+        if (changes.some(change => change.created && !change.deleted)) {
+            this.resultCache.clear();
+            return;
+        }
+
+        const byId = new Map(changes.map(change => [change.questionId, change]));
+        for (const [key, results] of this.resultCache) {
+            const updated = [];
+            for (const hit of results) {
+                const change = byId.get(hit.id);
+                if (!change) {
+                    updated.push(hit);
+                } else if (!change.deleted) {
+                    updated.push({ ...hit, replyCount: change.summary.replyCount });
+                }
+            }
+            this.resultCache.set(key, updated);
         }
     }
 
@@ -57,14 +112,12 @@ class SearchService {
         }
 
         try {
-            let results;
+            const key = query.trim().toLowerCase();
+            let results = this.resultCache.get(key);
 
-            if (this.questionsCache) {
-                // 使用缓存数据
-                results = this.searchInCache(query);
-            } else {
-                // 从服务器搜索
+            if (!results) {
                 results = await this.searchFromServer(query);
+                this.resultCache.set(key, results);
             }
 
             this.displayResults(results);
@@ -74,23 +127,11 @@ class SearchService {
         }
     }
 
-    /**
-     * 在缓存中搜索
-     */
-    searchInCache(query) {
-        const lowerQuery = query.toLowerCase();
-        return this.questionsCache.filter(question => {
-            return question.title.toLowerCase().includes(lowerQuery) ||
-                question.content.toLowerCase().includes(lowerQuery) ||
-                question.user.username.toLowerCase().includes(lowerQuery);
-        });
-    }
-
     /**
      * 从服务器搜索
      */
     async searchFromServer(query) {
-        const response = await fetch(`/api/search?q=${encodeURIComponent(query)}`);
+        const response = await fetch(`/api/search?q=${encodeURIComponent(query)}&limit=20`);
         if (!response.ok) {
             throw new Error('搜索请求失败');
         }
@@ -115,21 +156,20 @@ class SearchService {
 
         let html = '<div class="list-group">';
 
-        results.slice(0, 10).forEach(question => {
-            const excerpt = question.content.substring(0, 100) + '...';
-            const date = new Date(question.createdAt).toLocaleDateString();
+        results.slice(0, 10).forEach(hit => {
+            const date = new Date(hit.createdAt).toLocaleDateString();
 
             html += `
-                <a href="/questions/${question.id}" class="list-group-item list-group-item-action">
+                <a href="/questions/${hit.id}" class="list-group-item list-group-item-action">
                     <div class="d-flex w-100 justify-content-between">
-                        <h6 class="mb-1">${this.highlightText(question.title, this.searchInput.value)}</h6>
+                        <h6 class="mb-1">${this.highlightText(hit.title, this.searchInput.value)}</h6>
                         <small class="text-muted">${date}</small>
                     </div>
-                    <p class="mb-1 small text-muted">${excerpt}</p>
+                    <p class="mb-1 small text-muted">${this.highlightText(hit.snippet, this.searchInput.value)}</p>
                     <small class="text-muted">
-                        <i class="bi bi-person"></i> ${question.user.username}
+                        <i class="bi bi-person"></i> ${this.escapeHtml(hit.authorName)}
                         <span class="ms-2">
-                            <i class="bi bi-chat"></i> ${question.replies.length}
+                            <i class="bi bi-chat"></i> ${hit.replyCount}
                         </span>
                     </small>
                 </a>
@@ -156,10 +196,23 @@ class SearchService {
      * 高亮显示搜索关键词
      */
     highlightText(text, query) {
-        if (!query) return text;
+        const safeText = this.escapeHtml(text);
+        if (!query) return safeText;
+
+        const regex = new RegExp(`(${this.escapeRegExp(this.escapeHtml(query))})`, 'gi');
+        return safeText.replace(regex, '<mark>$1</mark>');
+    }
 
-        const regex = new RegExp(`(${this.escapeRegExp(query)})`, 'gi');
-        return text.replace(regex, '<mark>$1</mark>');
+    /**
+     * 转义HTML特殊字符
+     */
+    escapeHtml(text) {
+        return String(text || '')
+            .replace(/&/g, '&amp;')
+            .replace(/</g, '&lt;')
+            .replace(/>/g, '&gt;')
+            .replace(/"/g, '&quot;')
+            .replace(/'/g, '&#39;');
     }
 
     /**
@@ -213,6 +266,8 @@ class SearchService {
     }, 300);
 }
 
+SearchService.SYNC_INTERVAL = 30000; // 变更同步间隔（毫秒）
+
 // 初始化搜索功能
 document.addEventListener('DOMContentLoaded', function() {
     new SearchService();